@@ -0,0 +1,78 @@
+package chess.engine.nnue;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Fica fora de src para que o resto do projeto compile sem o módulo incubado.
+// Compilar depois de src, para o mesmo destino:
+//   javac --add-modules jdk.incubator.vector -cp <classes> -d <classes> src-vector/chess/engine/nnue/VectorKernels.java
+// e executar com --add-modules jdk.incubator.vector. A largura é a preferida da
+// CPU (8 ints com AVX2, 16 com AVX-512); o resto de cada laço que não completa
+// um vetor é feito escalarmente.
+class VectorKernels extends Kernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(int[] accumulator, int[] weights, int offset) {
+        int n = accumulator.length;
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i<bound; i += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, accumulator, i).add(IntVector.fromArray(SPECIES, weights, offset + i)).intoArray(accumulator, i);
+        }
+        for (; i<n; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(int[] accumulator, int[] weights, int offset) {
+        int n = accumulator.length;
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i<bound; i += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, accumulator, i).sub(IntVector.fromArray(SPECIES, weights, offset + i)).intoArray(accumulator, i);
+        }
+        for (; i<n; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public void clippedRelu(int[] input, int count, int shift, int[] output, int outputOffset) {
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i<bound; i += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, input, i).lanewise(VectorOperators.ASHR, shift)
+                    .max(0).min(ACTIVATION_MAX).intoArray(output, outputOffset + i);
+        }
+        for (; i<count; i++) {
+            output[outputOffset + i] = Math.max(0, Math.min(ACTIVATION_MAX, input[i] >> shift));
+        }
+    }
+
+    @Override
+    public void dense(int[] input, int inputs, int[] weights, int[] biases, int[] output, int outputs) {
+        int bound = SPECIES.loopBound(inputs);
+        for (int j=0; j<outputs; j++) {
+            int row = j * inputs;
+            IntVector sum = IntVector.zero(SPECIES);
+            int i = 0;
+            for (; i<bound; i += SPECIES.length()) {
+                sum = IntVector.fromArray(SPECIES, weights, row + i).mul(IntVector.fromArray(SPECIES, input, i)).add(sum);
+            }
+            int total = biases[j] + sum.reduceLanes(VectorOperators.ADD);
+            for (; i<inputs; i++) {
+                total += weights[row + i] * input[i];
+            }
+            output[j] = total;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vetorial (" + SPECIES.vectorBitSize() + " bits)";
+    }
+}
\ No newline at end of file
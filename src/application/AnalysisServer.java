@@ -0,0 +1,156 @@
+package application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.service.Analysis;
+import chess.service.AnalysisService;
+import chess.service.LatencyHistogram;
+
+// Uso: AnalysisServer [porta] [threads] [tamanho do cache] [validade do cache em s]
+//
+//   GET /analyze?fen=<FEN>&depth=<n>&nodes=<n>&movetime=<ms>
+//   GET /metrics
+//
+// Responde em texto, uma linha por campo. Só escuta em localhost.
+public class AnalysisServer {
+
+    private final AnalysisService service;
+    private final HttpServer server;
+
+    public AnalysisServer(AnalysisService service, int port) throws IOException {
+        this.service = service;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        server.createContext("/analyze", this::analyze);
+        server.createContext("/metrics", this::metrics);
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "analysis-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 8080;
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int cacheSize = (args.length > 2) ? Integer.parseInt(args[2]) : 10000;
+        long ttlSeconds = (args.length > 3) ? Long.parseLong(args[3]) : 600;
+        AnalysisServer server = new AnalysisServer(new AnalysisService(threads, cacheSize, ttlSeconds * 1000), port);
+        server.start();
+        System.out.println("Servidor de análise em http://127.0.0.1:" + server.getPort() + "/analyze");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        service.close();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void analyze(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        String fen = query.get("fen");
+        if (fen == null) {
+            respond(exchange, 400, "erro falta o parâmetro fen\n");
+            return;
+        }
+        Analysis analysis;
+        try {
+            SearchLimits limits = new SearchLimits();
+            if (query.containsKey("depth")) {
+                limits.setDepth(Integer.parseInt(query.get("depth")));
+            }
+            if (query.containsKey("nodes")) {
+                limits.setNodes(Long.parseLong(query.get("nodes")));
+            }
+            if (query.containsKey("movetime")) {
+                limits.setMoveTime(Long.parseLong(query.get("movetime")));
+            }
+            analysis = service.analyze(fen, limits).get();
+        }
+        catch (ExecutionException e) {
+            respond(exchange, 500, "erro " + e.getCause().getMessage() + "\n");
+            return;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "erro análise interrompida\n");
+            return;
+        }
+        catch (RuntimeException e) {
+            respond(exchange, 400, "erro " + e.getMessage() + "\n");
+            return;
+        }
+        SearchResult result = analysis.getResult();
+        StringBuilder sb = new StringBuilder();
+        sb.append("fen ").append(analysis.getFen()).append('\n');
+        sb.append("bestmove ").append(analysis.getBestMove()).append('\n');
+        sb.append("score ").append(result.isMate() ? "mate " + result.getMateIn() : "cp " + result.getScore()).append('\n');
+        sb.append("depth ").append(result.getDepth()).append('\n');
+        sb.append("nodes ").append(result.getNodes()).append('\n');
+        sb.append("time ").append(result.getTimeMillis()).append('\n');
+        sb.append("pv ").append(String.join(" ", analysis.getPv())).append('\n');
+        respond(exchange, 200, sb.toString());
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        LatencyHistogram latency = service.getLatency();
+        StringBuilder sb = new StringBuilder();
+        sb.append("requests ").append(service.getRequests()).append('\n');
+        sb.append("queue ").append(service.getQueueDepth()).append('\n');
+        sb.append("active ").append(service.getActiveAnalyses()).append('\n');
+        sb.append("computed ").append(service.getComputed()).append('\n');
+        sb.append("coalesced ").append(service.getCoalesced()).append('\n');
+        sb.append("cache_hits ").append(service.getCacheHits()).append('\n');
+        sb.append("cache_hit_rate ").append(String.format("%.4f", service.getHitRate())).append('\n');
+        sb.append("cache_size ").append(service.getCacheSize()).append('\n');
+        sb.append("cache_evictions ").append(service.getCacheEvictions()).append('\n');
+        sb.append("failures ").append(service.getFailures()).append('\n');
+        for (double p : new double[] {50, 90, 99, 99.9}) {
+            sb.append("latency_p").append(String.valueOf(p).replace(".0", "")).append("_us ").append(latency.percentile(p)).append('\n');
+        }
+        respond(exchange, 200, sb.toString());
+    }
+
+    static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
\ No newline at end of file
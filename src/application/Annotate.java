@@ -0,0 +1,47 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import chess.annotation.GameAnnotator;
+
+// Uso: Annotate <partidas> <saída.pgn> [nodes <n>] [threads <n>]
+// Anota cada lance das partidas com a avaliação e marca os erros e os mates perdidos.
+public class Annotate {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.out.println("Uso: Annotate <partidas> <saída.pgn> [nodes <n>] [threads <n>]");
+            return;
+        }
+        GameAnnotator annotator = new GameAnnotator();
+        for (int i=2; i<args.length; i += 2) {
+            switch (args[i]) {
+                case "nodes":
+                    annotator.setNodes(Long.parseLong(args[i + 1]));
+                    break;
+                case "threads":
+                    annotator.setThreads(Integer.parseInt(args[i + 1]));
+                    break;
+                default:
+                    System.out.println("Opção desconhecida: " + args[i]);
+                    return;
+            }
+        }
+
+        long start = System.nanoTime();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+                BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            annotator.annotate(in, out);
+        }
+        long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000L);
+        System.out.printf("%d partidas, %d lances em %d ms (%.1f min por mil partidas, %.0f lances/s)%n",
+                annotator.getGames(), annotator.getPlies(), elapsed,
+                (annotator.getGames() == 0) ? 0.0 : elapsed / 60000.0 * 1000 / annotator.getGames(), annotator.getPlies() * 1000.0 / elapsed);
+        System.out.printf("%d imprecisões, %d erros, %d erros graves, %d mates perdidos, %d partidas com lance ilegal%n",
+                annotator.getInaccuracies(), annotator.getMistakes(), annotator.getBlunders(), annotator.getMissedMates(), annotator.getIllegalGames());
+    }
+}
\ No newline at end of file
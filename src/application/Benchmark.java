@@ -0,0 +1,564 @@
+package application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Color;
+import chess.ConcurrentChessMatch;
+import chess.MoveStatus;
+import chess.PieceDescriptor;
+import chess.archive.GameArchive;
+import chess.archive.GameReplay;
+import chess.engine.nnue.Kernels;
+import chess.engine.nnue.Network;
+import chess.engine.nnue.NnueEvaluator;
+import chess.journal.GameStore;
+import chess.service.AnalysisService;
+import chess.training.TrainingExporter;
+
+public class Benchmark {
+
+    private static final String OPENING = "e2e4 d7d5 g1f3 g8f6 b1c3 c8g4 f1e2 b8c6 d2d4 e7e6 e1g1 f8e7";
+
+    // Posições de perft com a contagem conhecida de nós: as duas primeiras sem
+    // promoções (referência de velocidade), as outras cheias de promoções e
+    // subpromoções. FEN, profundidade, nós.
+    private static final Object[][] PERFT = {
+        {"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 4, 197281L},
+        {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 3, 97862L},
+        {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4, 422333L},
+        {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 3, 62379L},
+        {"n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1", 4, 182838L},
+        {"8/P1k5/K7/8/8/8/8/8 w - - 0 1", 6, 92683L},
+    };
+
+    public static void main(String[] args) throws Exception {
+        String name = (args.length > 0) ? args[0] : "see";
+        switch (name) {
+            case "see":
+                see();
+                break;
+            case "export":
+                export();
+                break;
+            case "nnue":
+                nnue();
+                break;
+            case "journal":
+                journal();
+                break;
+            case "concurrent":
+                concurrent();
+                break;
+            case "service":
+                service();
+                break;
+            case "replay":
+                replay(args);
+                break;
+            case "perft":
+                perft();
+                break;
+            default:
+                System.out.println("Benchmark desconhecido: " + name);
+        }
+    }
+
+    private static ChessMatch playOpening() {
+        ChessMatch chessMatch = new ChessMatch();
+        for (String move : OPENING.split(" ")) {
+            chessMatch.performChessMove(position(move.substring(0, 2)), position(move.substring(2)));
+        }
+        return chessMatch;
+    }
+
+    static ChessPosition position(String s) {
+        return new ChessPosition(s.charAt(0), Integer.parseInt(s.substring(1)));
+    }
+
+    // Mede o custo por chamada da SEE sobre todos os pares (peça, peça adversária)
+    // da posição, sejam ou não capturas possíveis.
+    private static void see() {
+        ChessMatch chessMatch = playOpening();
+        ChessPiece[][] pieces = chessMatch.getPieces();
+        int count = 0;
+        ChessPosition[] sources = new ChessPosition[64 * 64];
+        ChessPosition[] targets = new ChessPosition[64 * 64];
+        for (int i=0; i<8; i++) {
+            for (int j=0; j<8; j++) {
+                if (pieces[i][j] == null) {
+                    continue;
+                }
+                for (int k=0; k<8; k++) {
+                    for (int l=0; l<8; l++) {
+                        if (pieces[k][l] != null && pieces[k][l].getColor() != pieces[i][j].getColor()) {
+                            sources[count] = pieces[i][j].getChessPosition();
+                            targets[count] = pieces[k][l].getChessPosition();
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+
+        long checksum = 0;
+        for (int round=0; round<5; round++) {
+            int calls = 0;
+            long start = System.nanoTime();
+            while (calls < 2_000_000) {
+                for (int i=0; i<count; i++) {
+                    checksum += chessMatch.staticExchange(sources[i], targets[i]);
+                }
+                calls += count;
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("SEE: %d chamadas, %.1f ns/chamada%n", calls, (double)elapsed / calls);
+        }
+        System.out.println("checksum " + checksum);
+    }
+
+    // Mede a vazão do TrainingExporter (codificação + embaralhamento + gravação)
+    // com uma thread por CPU, cada uma gravando repetidamente a mesma posição.
+    private static void export() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path path = Files.createTempFile("export", ".bin");
+        try (TrainingExporter exporter = new TrainingExporter(path, 1 << 15, true, 0, 1)) {
+            Thread[] workers = new Thread[threads];
+            long start = System.nanoTime();
+            for (int t=0; t<threads; t++) {
+                TrainingExporter.Writer writer = exporter.newWriter();
+                workers[t] = new Thread(() -> {
+                    ChessMatch chessMatch = playOpening();
+                    try {
+                        for (int i=0; i<5_000_000; i++) {
+                            writer.add(chessMatch, 1, i & 255);
+                        }
+                        writer.flush();
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Exportação: %d posições, %d threads, %.1f milhões de posições/s%n",
+                    exporter.getWritten(), threads, exporter.getWritten() * 1000.0 / elapsed);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // Compara avaliações/s da rede com as operações escalares e vetoriais (estas só
+    // com src-vector compilada e --add-modules jdk.incubator.vector), avaliando sempre a mesma posição, e
+    // o custo de jogar e desfazer os lances com os acumuladores incrementais.
+    private static void nnue() {
+        Network network = Network.random(256, 32, 32, 1);
+        ChessMatch chessMatch = playOpening();
+        int[] moves = new int[256];
+        int count = chessMatch.generateMoves(moves);
+        Kernels vector = Kernels.best();
+        Kernels[] variants = (vector.getName().equals(Kernels.scalar().getName())) ? new Kernels[] { vector } : new Kernels[] { Kernels.scalar(), vector };
+        long checksum = 0;
+        for (int round=0; round<3; round++) {
+            for (Kernels kernels : variants) {
+                NnueEvaluator evaluator = new NnueEvaluator(network, kernels);
+                long start = System.nanoTime();
+                for (int i=0; i<500_000; i++) {
+                    checksum += evaluator.evaluate(chessMatch);
+                }
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("NNUE %s: %.0f mil avaliações/s%n", kernels.getName(), 500_000 * 1e6 / elapsed);
+
+                int played = 0;
+                start = System.nanoTime();
+                while (played < 500_000) {
+                    for (int i=0; i<count; i++) {
+                        if (chessMatch.playMove(moves[i])) {
+                            checksum += evaluator.evaluate(chessMatch);
+                            chessMatch.unmakeMove();
+                            played++;
+                        }
+                    }
+                }
+                elapsed = System.nanoTime() - start;
+                System.out.printf("NNUE %s: %.0f mil lances+avaliações/s%n", kernels.getName(), played * 1e6 / elapsed);
+            }
+        }
+        System.out.println("checksum " + checksum);
+    }
+
+    // Muitas partidas simultâneas jogando lances aleatórios num GameStore com fsync:
+    // mede lances/s e lances por fsync (o ganho do group commit), tira um snapshot
+    // na metade e depois mede a recuperação, conferindo a FEN de cada partida.
+    private static void journal() throws Exception {
+        int threads = 64;
+        int gamesPerThread = 32;
+        int movesPerThread = 1000;
+        Path directory = Files.createTempDirectory("journal");
+        GameStore store = GameStore.open(directory);
+        AtomicLong moves = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t=0; t<threads; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    playRandomGames(store, seed, gamesPerThread, movesPerThread, moves);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            workers[t].start();
+        }
+        while (moves.get() < threads * movesPerThread / 2) {
+            Thread.sleep(10);
+        }
+        long snapshotStart = System.nanoTime();
+        store.snapshot();
+        long snapshotMillis = (System.nanoTime() - snapshotStart) / 1_000_000L;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Diário: %d lances de %d threads em %d ms, %.0f lances/s, %.1f lances por fsync, snapshot em %d ms%n",
+                moves.get(), threads, elapsed / 1_000_000L, moves.get() * 1e9 / elapsed, (double)moves.get() / store.getCommits(), snapshotMillis);
+
+        Map<Long, String> fens = new HashMap<>();
+        for (long gameId : store.getGameIds()) {
+            fens.put(gameId, store.getMatch(gameId).getFen());
+        }
+        store.close();
+
+        GameStore recovered = GameStore.open(directory);
+        int matching = 0;
+        for (Map.Entry<Long, String> entry : fens.entrySet()) {
+            if (recovered.getGameIds().contains(entry.getKey()) && recovered.getMatch(entry.getKey()).getFen().equals(entry.getValue())) {
+                matching++;
+            }
+        }
+        System.out.printf("Recuperação: %d partidas, %d registros do diário refeitos em %d ms, %d/%d posições conferem%n",
+                recovered.getRecoveredGames(), recovered.getReplayedRecords(), recovered.getRecoveryMillis(), matching, fens.size());
+        recovered.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>)files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static void playRandomGames(GameStore store, long seed, int games, int count, AtomicLong moves) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] ids = new long[games];
+        for (int i=0; i<games; i++) {
+            ids[i] = store.newGame();
+        }
+        int[] generated = new int[256];
+        for (int played=0; played<count; ) {
+            int index = random.nextInt(games);
+            ChessMatch chessMatch = store.getMatch(ids[index]);
+            int n = chessMatch.generateMoves(generated);
+            if (store.move(ids[index], generated[random.nextInt(n)]) != MoveStatus.OK) {
+                continue;
+            }
+            played++;
+            moves.incrementAndGet();
+            if (chessMatch.getCheckMate() || chessMatch.getDraw() || chessMatch.getPly() >= 200) {
+                store.finish(ids[index]);
+                ids[index] = store.newGame();
+            }
+        }
+    }
+
+    // Uma thread joga lances aleatórios sem parar enquanto 1, 2, 4 e 8 leitores
+    // leem a partida: mede leituras/s e confere se cada leitura é coerente (as
+    // peças batem com a FEN da mesma versão e há um rei de cada cor).
+    private static void concurrent() throws Exception {
+        ConcurrentChessMatch shared = new ConcurrentChessMatch();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong moves = new AtomicLong();
+        Thread writer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(1);
+            int[] generated = new int[256];
+            while (running.get()) {
+                int move = shared.write(chessMatch -> {
+                    if (chessMatch.getCheckMate() || chessMatch.getDraw() || chessMatch.getPly() >= 200) {
+                        while (chessMatch.canUndo()) {
+                            chessMatch.undo();
+                        }
+                    }
+                    return generated[random.nextInt(chessMatch.generateMoves(generated))];
+                });
+                if (shared.tryPerformChessMove(move) == MoveStatus.OK) {
+                    moves.incrementAndGet();
+                }
+            }
+        });
+        writer.start();
+        for (int readers=1; readers<=8; readers *= 2) {
+            AtomicLong reads = new AtomicLong();
+            AtomicLong torn = new AtomicLong();
+            AtomicBoolean reading = new AtomicBoolean(true);
+            Thread[] threads = new Thread[readers];
+            for (int t=0; t<readers; t++) {
+                threads[t] = new Thread(() -> {
+                    long count = 0;
+                    while (reading.get()) {
+                        ConcurrentChessMatch.View view = shared.getView();
+                        if (!consistent(view)) {
+                            torn.incrementAndGet();
+                        }
+                        count++;
+                    }
+                    reads.addAndGet(count);
+                });
+            }
+            long movesBefore = moves.get();
+            long start = System.nanoTime();
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            Thread.sleep(1000);
+            reading.set(false);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d leitores: %.0f leituras/s, %.0f lances/s, %d leituras incoerentes%n",
+                    readers, reads.get() * 1e9 / elapsed, (moves.get() - movesBefore) * 1e9 / elapsed, torn.get());
+        }
+        running.set(false);
+        writer.join();
+    }
+
+    private static boolean consistent(ConcurrentChessMatch.View view) {
+        StringBuilder placement = new StringBuilder();
+        int kings = 0;
+        for (PieceDescriptor[] row : view.getPieces()) {
+            if (placement.length() > 0) {
+                placement.append('/');
+            }
+            int empty = 0;
+            for (PieceDescriptor p : row) {
+                if (p == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    placement.append(empty);
+                    empty = 0;
+                }
+                placement.append(p.getFenSymbol());
+                if (p.getType() == 'K') {
+                    kings += (p.getColor() == Color.WHITE) ? 1 : 16;
+                }
+            }
+            if (empty > 0) {
+                placement.append(empty);
+            }
+        }
+        String[] fields = view.getFen().split(" ");
+        return kings == 17 && fields[0].equals(placement.toString())
+                && fields[1].equals((view.getCurrentPlayer() == Color.WHITE) ? "w" : "b");
+    }
+
+    // Gerador de carga do servidor de análise: clientes HTTP locais pedem posições
+    // sorteadas por uma distribuição de Zipf (poucas posições muito populares e
+    // uma cauda longa), como acontece com aberturas e partidas transmitidas.
+    private static void service() throws Exception {
+        int positionCount = 2000;
+        int clients = 32;
+        long durationMillis = 10000;
+        double exponent = 1.1;
+        SplittableRandom random = new SplittableRandom(7);
+        String[] fens = new String[positionCount];
+        int[] generated = new int[256];
+        for (int i=0; i<positionCount; i++) {
+            ChessMatch chessMatch = new ChessMatch();
+            int plies = 4 + random.nextInt(16);
+            for (int ply=0; ply<plies && !chessMatch.getCheckMate() && !chessMatch.getDraw(); ) {
+                int n = chessMatch.generateMoves(generated);
+                if (chessMatch.tryPerformChessMove(generated[random.nextInt(n)]) == MoveStatus.OK) {
+                    ply++;
+                }
+            }
+            fens[i] = chessMatch.getFen();
+        }
+        double[] cumulative = new double[positionCount];
+        double sum = 0;
+        for (int i=0; i<positionCount; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i=0; i<positionCount; i++) {
+            cumulative[i] /= sum;
+        }
+
+        AnalysisServer server = new AnalysisServer(new AnalysisService(Runtime.getRuntime().availableProcessors(), 500, 60000), 0);
+        server.start();
+        String base = "http://127.0.0.1:" + server.getPort();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + durationMillis * 1_000_000L;
+        Thread[] threads = new Thread[clients];
+        for (int t=0; t<clients; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom clientRandom = new SplittableRandom(seed);
+                while (System.nanoTime() < deadline) {
+                    int index = Arrays.binarySearch(cumulative, clientRandom.nextDouble());
+                    String fen = fens[Math.min(positionCount - 1, (index < 0) ? -index - 1 : index)];
+                    try {
+                        String body = get(base + "/analyze?depth=3&fen=" + URLEncoder.encode(fen, StandardCharsets.UTF_8));
+                        if (body.startsWith("fen ")) {
+                            completed.incrementAndGet();
+                        }
+                        else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%d clientes, %d posições (Zipf s=%.1f): %d pedidos em %d ms, %.0f pedidos/s, %d erros%n",
+                clients, positionCount, exponent, completed.get(), durationMillis, completed.get() * 1000.0 / durationMillis, errors.get());
+        System.out.print(get(base + "/metrics"));
+        server.stop();
+    }
+
+    private static String get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)URI.create(url).toURL().openConnection();
+        try {
+            InputStream in = (connection.getResponseCode() < 400) ? connection.getInputStream() : connection.getErrorStream();
+            try (InputStream body = in) {
+                return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        finally {
+            connection.disconnect();
+        }
+    }
+
+    // Valida um arquivo de partidas jogando cada uma desde o início e depois pela
+    // árvore de prefixos, confere se os resultados são os mesmos e mede o ganho.
+    private static void replay(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Uso: Benchmark replay <arquivo de partidas>");
+            return;
+        }
+        List<String[]> games = new ArrayList<>();
+        long moves = 0;
+        for (String line : Files.readAllLines(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            String[] tokens = line.trim().split("\\s+");
+            if (GameArchive.parseResult(tokens[0]) >= 0) {
+                games.add(Arrays.copyOfRange(tokens, 1, tokens.length));
+                moves += tokens.length - 1;
+            }
+        }
+
+        long start = System.nanoTime();
+        GameReplay.Result[] independent = new GameReplay.Result[games.size()];
+        for (int i=0; i<games.size(); i++) {
+            independent[i] = GameReplay.replay(games.get(i));
+        }
+        long independentNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        GameReplay.Result[] shared = GameReplay.replayAll(games);
+        long sharedNanos = System.nanoTime() - start;
+
+        int matching = 0;
+        int invalid = 0;
+        for (int i=0; i<games.size(); i++) {
+            if (independent[i].equals(shared[i])) {
+                matching++;
+            }
+            if (!independent[i].isValid()) {
+                invalid++;
+            }
+        }
+        System.out.printf("%d partidas, %d lances, %d com lance ilegal%n", games.size(), moves, invalid);
+        System.out.printf("Uma a uma: %d ms; pela árvore de prefixos: %d ms (%.1fx); %d/%d resultados iguais%n",
+                independentNanos / 1_000_000L, sharedNanos / 1_000_000L, (double)independentNanos / sharedNanos, matching, games.size());
+    }
+
+    // Confere as contagens de perft e mede os nós por segundo das posições com
+    // promoções contra as sem, para ver se promover e desfazer custa mais que um
+    // lance comum.
+    private static void perft() {
+        long[] nodes = new long[2];
+        long[] nanos = new long[2];
+        int wrong = 0;
+        for (int round=0; round<3; round++) {
+            Arrays.fill(nodes, 0);
+            Arrays.fill(nanos, 0);
+            for (int i=0; i<PERFT.length; i++) {
+                ChessMatch chessMatch = new ChessMatch((String)PERFT[i][0]);
+                int depth = (Integer)PERFT[i][1];
+                long start = System.nanoTime();
+                long count = perft(chessMatch, depth, new int[depth + 1][256]);
+                long elapsed = System.nanoTime() - start;
+                int group = (i < 2) ? 0 : 1;
+                nodes[group] += count;
+                nanos[group] += elapsed;
+                if (count != (Long)PERFT[i][2]) {
+                    wrong++;
+                }
+                if (round == 2) {
+                    System.out.printf("%-72s %d: %9d nós %s, %6.0f mil nós/s%n", PERFT[i][0], depth, count,
+                            (count == (Long)PERFT[i][2]) ? "ok" : "ERRADO (esperado " + PERFT[i][2] + ")", count * 1e6 / elapsed);
+                }
+            }
+        }
+        double reference = nodes[0] * 1e6 / nanos[0];
+        double promotions = nodes[1] * 1e6 / nanos[1];
+        System.out.printf("Sem promoções: %.0f mil nós/s; com promoções: %.0f mil nós/s (%.2fx); %d contagens erradas%n",
+                reference, promotions, promotions / reference, wrong);
+    }
+
+    private static long perft(ChessMatch chessMatch, int depth, int[][] moves) {
+        if (depth == 0) {
+            return 1;
+        }
+        int count = chessMatch.generateMoves(moves[depth]);
+        long nodes = 0;
+        for (int i=0; i<count; i++) {
+            if (chessMatch.playMove(moves[depth][i])) {
+                nodes += perft(chessMatch, depth - 1, moves);
+                chessMatch.unmakeMove();
+            }
+        }
+        return nodes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,227 @@
+package application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+
+public class BoardRenderer {
+
+    private static final int GAP = 3;
+    private static final int HIGHLIGHT = 1 << 8;
+    private static final int BLACK = 1 << 9;
+
+    private OutputStream out;
+    private byte[] buffer = new byte[8192];
+    private int length;
+
+    // Último quadro desenhado: as peças de cada tabuleiro e o código de cada casa,
+    // usados por renderChanges para reescrever somente as casas que mudaram.
+    private ChessPiece[][][] pieces = new ChessPiece[0][][];
+    private int[][] lastFrame = new int[0][];
+
+    public BoardRenderer(OutputStream out) {
+        this.out = out;
+    }
+
+    public void render(ChessPiece[][] pieces, boolean[][] possibleMoves) {
+        ensureBoards(1, pieces.length, pieces[0].length);
+        for (int i=0; i<pieces.length; i++) {
+            System.arraycopy(pieces[i], 0, this.pieces[0][i], 0, pieces[i].length);
+        }
+        length = 0;
+        appendFrame(possibleMoves);
+        flush();
+    }
+
+    public void render(ChessMatch... matches) {
+        ensureBoards(matches.length, matches[0].getRows(), matches[0].getColumns());
+        for (int b=0; b<matches.length; b++) {
+            matches[b].copyPieces(pieces[b]);
+        }
+        length = 0;
+        appendFrame(null);
+        flush();
+    }
+
+    // Supõe que o último quadro completo foi desenhado a partir do topo da tela,
+    // como faz o Program logo após UI.clearScreen().
+    public void renderChanges(ChessMatch... matches) {
+        if (matches.length != pieces.length || pieces.length == 0 || matches[0].getRows() != pieces[0].length || matches[0].getColumns() != pieces[0][0].length) {
+            length = 0;
+            append("\033[H\033[2J");
+            ensureBoards(matches.length, matches[0].getRows(), matches[0].getColumns());
+            for (int b=0; b<matches.length; b++) {
+                matches[b].copyPieces(pieces[b]);
+            }
+            appendFrame(null);
+            flush();
+            return;
+        }
+        int rows = pieces[0].length;
+        int columns = pieces[0][0].length;
+        length = 0;
+        append("\0337");
+        for (int b=0; b<matches.length; b++) {
+            matches[b].copyPieces(pieces[b]);
+            for (int i=0; i<rows; i++) {
+                for (int j=0; j<columns; j++) {
+                    int code = squareCode(pieces[b][i][j], false);
+                    if (code != lastFrame[b][i * columns + j]) {
+                        lastFrame[b][i * columns + j] = code;
+                        append("\033[");
+                        appendInt(i + 2);
+                        append(";");
+                        appendInt(b * (blockWidth(columns) + GAP) + labelWidth(rows) + 2 * j + 1);
+                        append("H");
+                        appendSquare(pieces[b][i][j], false);
+                    }
+                }
+            }
+        }
+        append("\0338");
+        flush();
+    }
+
+    private void ensureBoards(int count, int rows, int columns) {
+        if (pieces.length != count || pieces[0].length != rows || pieces[0][0].length != columns) {
+            pieces = new ChessPiece[count][rows][columns];
+            lastFrame = new int[count][rows * columns];
+        }
+    }
+
+    private void appendFrame(boolean[][] possibleMoves) {
+        int boards = pieces.length;
+        int rows = pieces[0].length;
+        int columns = pieces[0][0].length;
+        int width = blockWidth(columns);
+
+        for (int b=0; b<boards; b++) {
+            for (int k=0; k<width; k++) {
+                appendByte('-');
+            }
+            appendGap(b, boards, 0);
+        }
+        appendByte('\n');
+
+        for (int i=0; i<rows; i++) {
+            for (int b=0; b<boards; b++) {
+                int label = rows - i;
+                appendInt(label);
+                for (int k=digits(label); k<labelWidth(rows); k++) {
+                    appendByte(' ');
+                }
+                for (int j=0; j<columns; j++) {
+                    boolean highlight = possibleMoves != null && possibleMoves[i][j];
+                    lastFrame[b][i * columns + j] = squareCode(pieces[b][i][j], highlight);
+                    appendSquare(pieces[b][i][j], highlight);
+                }
+                appendGap(b, boards, width - labelWidth(rows) - 2 * columns);
+            }
+            appendByte('\n');
+        }
+
+        for (int b=0; b<boards; b++) {
+            for (int k=0; k<labelWidth(rows); k++) {
+                appendByte(' ');
+            }
+            for (int j=0; j<columns; j++) {
+                appendByte('a' + j);
+                if (j < columns - 1) {
+                    appendByte(' ');
+                }
+            }
+            appendGap(b, boards, width - labelWidth(rows) - 2 * columns + 1);
+        }
+        appendByte('\n');
+
+        for (int b=0; b<boards; b++) {
+            for (int k=0; k<width; k++) {
+                appendByte('-');
+            }
+            appendGap(b, boards, 0);
+        }
+        appendByte('\n');
+    }
+
+    private void appendGap(int board, int boards, int padding) {
+        if (board < boards - 1) {
+            for (int k=0; k<padding + GAP; k++) {
+                appendByte(' ');
+            }
+        }
+    }
+
+    private void appendSquare(ChessPiece piece, boolean highlight) {
+        if (highlight) {
+            append(UI.ANSI_GREEN_BACKGROUND);
+        }
+        if (piece == null) {
+            append("- ");
+        }
+        else {
+            append((piece.getColor() == Color.WHITE) ? UI.ANSI_YELLOW : UI.ANSI_WHITE);
+            append(piece.toString());
+            append(UI.ANSI_RESET);
+            appendByte(' ');
+        }
+        append(UI.ANSI_RESET);
+    }
+
+    private int squareCode(ChessPiece piece, boolean highlight) {
+        int code = highlight ? HIGHLIGHT : 0;
+        if (piece != null) {
+            code |= piece.toString().charAt(0);
+            if (piece.getColor() == Color.BLACK) {
+                code |= BLACK;
+            }
+        }
+        return code;
+    }
+
+    private static int blockWidth(int columns) {
+        return 2 * columns + 9;
+    }
+
+    private static int labelWidth(int rows) {
+        return digits(rows) + 1;
+    }
+
+    private static int digits(int value) {
+        return (value < 10) ? 1 : (value < 100) ? 2 : 3;
+    }
+
+    private void append(String s) {
+        for (int i=0; i<s.length(); i++) {
+            appendByte(s.charAt(i));
+        }
+    }
+
+    private void appendInt(int value) {
+        if (value >= 10) {
+            appendInt(value / 10);
+        }
+        appendByte('0' + value % 10);
+    }
+
+    private void appendByte(int b) {
+        if (length == buffer.length) {
+            byte[] larger = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, length);
+            buffer = larger;
+        }
+        buffer[length++] = (byte)b;
+    }
+
+    private void flush() {
+        try {
+            out.write(buffer, 0, length);
+            out.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
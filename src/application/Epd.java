@@ -0,0 +1,80 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import chess.epd.EpdSuite;
+
+// Uso: Epd <arquivo> [movetime <ms>] [nodes <n>] [depth <n>] [threads <n>]
+// Sem limites, analisa cada posição por 1 segundo.
+public class Epd {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1 || args.length % 2 == 0) {
+            System.out.println("Uso: Epd <arquivo> [movetime <ms>] [nodes <n>] [depth <n>] [threads <n>]");
+            return;
+        }
+        List<EpdSuite.Position> positions = EpdSuite.read(Paths.get(args[0]));
+        EpdSuite suite = new EpdSuite();
+        for (int i=1; i<args.length; i += 2) {
+            long value = Long.parseLong(args[i + 1]);
+            switch (args[i]) {
+                case "movetime":
+                    suite.setMoveTime(value);
+                    break;
+                case "nodes":
+                    suite.setNodes(value);
+                    suite.setMoveTime(0);
+                    break;
+                case "depth":
+                    suite.setDepth((int)value);
+                    suite.setMoveTime(0);
+                    break;
+                case "threads":
+                    suite.setThreads((int)value);
+                    break;
+                default:
+                    System.out.println("Opção desconhecida: " + args[i]);
+                    return;
+            }
+        }
+
+        long start = System.nanoTime();
+        suite.run(positions);
+        long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000L);
+
+        int solved = 0;
+        int analyzed = 0;
+        long nodes = 0;
+        long solvedMillis = 0;
+        for (EpdSuite.Position position : positions) {
+            if (position.getResult() == null) {
+                System.out.println(position.getId() + ": erro: " + position.getError());
+                continue;
+            }
+            analyzed++;
+            nodes += position.getResult().getNodes();
+            StringBuilder line = new StringBuilder(position.getId()).append(": ").append(position.getBestMove());
+            if (position.isSolved()) {
+                solved++;
+                solvedMillis += position.getSolvedMillis();
+                line.append(" certo em ").append(position.getSolvedMillis()).append(" ms");
+            }
+            else {
+                line.append(" errado");
+                if (!position.getOperands("bm").isEmpty()) {
+                    line.append(", bm ").append(String.join(" ", position.getOperands("bm")));
+                }
+                if (!position.getOperands("am").isEmpty()) {
+                    line.append(", am ").append(String.join(" ", position.getOperands("am")));
+                }
+            }
+            line.append(" (profundidade ").append(position.getResult().getDepth()).append(", ")
+                    .append(position.getResult().getNodes()).append(" nós)");
+            System.out.println(line);
+        }
+        System.out.println(solved + "/" + positions.size() + " resolvidas"
+                + ((solved > 0) ? ", " + solvedMillis / solved + " ms em média até a solução" : "")
+                + "; " + analyzed + " analisadas, " + nodes + " nós em " + elapsed + " ms, " + nodes * 1000 / elapsed + " nós/s");
+    }
+}
\ No newline at end of file
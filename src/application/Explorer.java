@@ -0,0 +1,59 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import chess.ChessMatch;
+import chess.explorer.ExplorerBuilder;
+import chess.explorer.ExplorerIndex;
+import chess.explorer.PositionStats;
+
+// Uso:
+//   Explorer build <índice> <partidas>...   monta o índice a partir dos arquivos de partidas
+//   Explorer <índice> [lances...]            mostra as estatísticas da posição após os lances
+public class Explorer {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("build")) {
+            List<Path> archives = new ArrayList<>();
+            for (int i=2; i<args.length; i++) {
+                archives.add(Paths.get(args[i]));
+            }
+            ExplorerBuilder builder = new ExplorerBuilder();
+            long start = System.nanoTime();
+            builder.build(archives, Paths.get(args[1]));
+            long elapsed = (System.nanoTime() - start) / 1_000_000L;
+            System.out.println(builder.getGames() + " partidas (" + builder.getRejectedGames() + " recusadas), "
+                    + builder.getPositions() + " posições em " + elapsed + " ms");
+            return;
+        }
+        if (args.length < 1) {
+            System.out.println("Uso: Explorer build <índice> <partidas>... | Explorer <índice> [lances...]");
+            return;
+        }
+
+        ChessMatch chessMatch = new ChessMatch();
+        for (int i=1; i<args.length; i++) {
+            int move = chessMatch.parseMove(args[i]);
+            if (move == 0 || !chessMatch.playMove(move)) {
+                System.out.println("Lance inválido: " + args[i]);
+                return;
+            }
+        }
+        try (ExplorerIndex index = ExplorerIndex.open(Paths.get(args[0]))) {
+            long start = System.nanoTime();
+            PositionStats stats = index.lookup(chessMatch);
+            long elapsed = (System.nanoTime() - start) / 1000L;
+            if (stats == null) {
+                System.out.println("Posição não encontrada (" + elapsed + " µs)");
+                return;
+            }
+            System.out.println(stats + " (" + elapsed + " µs)");
+            for (int i=0; i<stats.getMoveCount(); i++) {
+                System.out.println("  " + chessMatch.moveToString(stats.getMove(i)) + " " + stats.getMoveGames(i));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import chess.ChessMatch;
+import chess.archive.GameArchive;
+import chess.engine.Evaluator;
+import chess.engine.MaterialEvaluator;
+import chess.training.TrainingExporter;
+
+// Uso: ExportTraining <saída> <partidas>...
+// Reproduz as partidas em todas as CPUs e grava cada posição alcançada com o
+// resultado da partida e a avaliação material, embaralhando e deduplicando.
+public class ExportTraining {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Uso: ExportTraining <saída> <partidas>...");
+            return;
+        }
+        List<Path> archives = new ArrayList<>();
+        for (int i=1; i<args.length; i++) {
+            archives.add(Paths.get(args[i]));
+        }
+        AtomicLong rejected = new AtomicLong();
+        long start = System.nanoTime();
+        TrainingExporter exporter = new TrainingExporter(Paths.get(args[0]), 1 << 15, true, 1 << 24, System.nanoTime());
+        try {
+            GameArchive.process(archives, Runtime.getRuntime().availableProcessors(), () -> new GameArchive.Worker() {
+
+                private final TrainingExporter.Writer writer = exporter.newWriter();
+                private final Evaluator evaluator = new MaterialEvaluator();
+
+                // A partida é toda validada antes de gravar qualquer posição: uma
+                // recusada num lance tardio não deixa as anteriores com o seu resultado.
+                // Depois volta ao início e refaz os lances já convertidos, gravando.
+                @Override
+                public void game(int result, String[] moves) throws IOException {
+                    ChessMatch chessMatch = new ChessMatch();
+                    int[] encoded = new int[moves.length];
+                    for (int i=0; i<moves.length; i++) {
+                        encoded[i] = chessMatch.parseMove(moves[i]);
+                        if (encoded[i] == 0 || !chessMatch.playMove(encoded[i])) {
+                            rejected.incrementAndGet();
+                            return;
+                        }
+                    }
+                    while (chessMatch.canUndo()) {
+                        chessMatch.unmakeMove();
+                    }
+                    for (int move : encoded) {
+                        chessMatch.playMove(move);
+                        writer.add(chessMatch, result, evaluator.evaluate(chessMatch));
+                    }
+                }
+            });
+        }
+        finally {
+            exporter.close();
+        }
+        long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000L);
+        System.out.println(exporter.getWritten() + " posições gravadas (" + exporter.getDuplicates() + " repetidas, "
+                + rejected.get() + " partidas recusadas) em " + elapsed + " ms, " + exporter.getWritten() * 1000 / elapsed + " posições/s");
+    }
+}
\ No newline at end of file
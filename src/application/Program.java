@@ -12,7 +12,7 @@ public class Program {
         Scanner sc = new Scanner(System.in);
         ChessMatch chessMatch = new ChessMatch();
 
-        while (!chessMatch.getCheckMate()) {
+        while (!chessMatch.getCheckMate() && !chessMatch.getDraw()) {
 
             try {
 
@@ -28,7 +28,12 @@ public class Program {
                 System.out.println();
                 System.out.print("Destino: ");
                 ChessPosition target = UI.readChessPosition(sc);
-                chessMatch.performChessMove(source, target);
+                String promotionType = "Q";
+                if (chessMatch.isPromotionMove(source, target)) {
+                    System.out.print("Promover para (B/N/R/Q): ");
+                    promotionType = sc.nextLine().toUpperCase();
+                }
+                chessMatch.performChessMove(source, target, promotionType);
             }
 
             catch (ChessException e) {
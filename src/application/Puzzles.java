@@ -0,0 +1,59 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import chess.ChessMatch;
+import chess.puzzle.MateResult;
+import chess.puzzle.PuzzleBatch;
+
+// Uso: Puzzles <arquivo> [limite de nós] [todos]
+// Com "todos", o atacante considera também lances que não dão xeque.
+public class Puzzles {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Uso: Puzzles <arquivo> [limite de nós] [todos]");
+            return;
+        }
+        List<PuzzleBatch.Puzzle> puzzles = PuzzleBatch.read(Paths.get(args[0]));
+        PuzzleBatch batch = new PuzzleBatch();
+        if (args.length > 1) {
+            batch.setNodeLimit(Long.parseLong(args[1]));
+        }
+        batch.setChecksOnly(args.length <= 2 || !args[2].equals("todos"));
+
+        long start = System.nanoTime();
+        batch.solve(puzzles);
+        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+
+        int solved = 0;
+        long nodes = 0;
+        for (PuzzleBatch.Puzzle puzzle : puzzles) {
+            MateResult result = puzzle.getResult();
+            if (result == null) {
+                System.out.println(puzzle.getId() + ": erro: " + puzzle.getError());
+                continue;
+            }
+            nodes += result.getNodes();
+            if (puzzle.isSolved()) {
+                solved++;
+            }
+            StringBuilder line = new StringBuilder(puzzle.getId()).append(": ");
+            if (result.isProven()) {
+                line.append("mate em ").append(result.getMateIn()).append(' ');
+                ChessMatch chessMatch = new ChessMatch(puzzle.getFen());
+                for (int move : result.getPv()) {
+                    line.append(' ').append(chessMatch.moveToString(move));
+                    chessMatch.playMove(move);
+                }
+            }
+            else {
+                line.append(result.getStatus() == MateResult.Status.DISPROVEN ? "sem mate em " + puzzle.getMateIn() : "indeterminado");
+            }
+            line.append(" (").append(result.getNodes()).append(" nós, ").append(result.getTimeMillis()).append(" ms)");
+            System.out.println(line);
+        }
+        System.out.println(solved + "/" + puzzles.size() + " resolvidos, " + nodes + " nós em " + elapsed + " ms");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package application;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import chess.engine.MaterialEvaluator;
+import chess.tournament.Player;
+import chess.tournament.Standing;
+import chess.tournament.Tournament;
+
+// Uso: SelfPlay <nós A> <nós B> [partidas] [arquivo de aberturas]
+// Joga A contra B, com o mesmo avaliador e limites de nós diferentes, até o SPRT
+// (elo0 = 0, elo1 = 10) decidir ou as partidas acabarem.
+public class SelfPlay {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Uso: SelfPlay <nós A> <nós B> [partidas] [arquivo de aberturas]");
+            return;
+        }
+        Player a = new Player("A", MaterialEvaluator::new);
+        a.setNodes(Long.parseLong(args[0]));
+        Player b = new Player("B", MaterialEvaluator::new);
+        b.setNodes(Long.parseLong(args[1]));
+
+        Tournament tournament = new Tournament(a, b);
+        if (args.length > 2) {
+            tournament.setMaxGames(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            List<String> openings = Files.readAllLines(Paths.get(args[3]), StandardCharsets.UTF_8);
+            openings.removeIf(line -> line.isBlank() || line.startsWith("#"));
+            tournament.setOpenings(openings);
+        }
+        Standing result = tournament.run(standing -> {
+            if (standing.getGames() % 10 == 0) {
+                System.out.println(standing);
+            }
+        });
+        System.out.println(result);
+        System.out.println("Decisão: " + result.getDecision());
+    }
+}
\ No newline at end of file
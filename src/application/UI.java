@@ -5,6 +5,7 @@ import java.util.Scanner;
 import chess.ChessPiece; 
 import chess.ChessPosition; 
 import chess.Color; 
+import chess.DrawReason; 
 import chess.ChessMatch; 
 
 public class UI {
@@ -13,13 +14,16 @@ public class UI {
     public static final String ANSI_WHITE = "\u001B[37m";
     public static final String ANSI_GREEN_BACKGROUND = "\u001B[42m";
     public static final String ANSI_RED_BACKGROUND = "\u001B[41m"; 
+
+    private static final BoardRenderer renderer = new BoardRenderer(System.out);
+
     public static void clearScreen() {
         System.out.print("\033[H\033[2J");
         System.out.flush();
     }
 
     public static void printMatch(ChessMatch chessMatch) {
-        printBoard(chessMatch.getPieces());
+        renderer.render(chessMatch);
         System.out.println();
         
         if (chessMatch.getCheckMate()) {
@@ -27,6 +31,10 @@ public class UI {
             Color winner = (chessMatch.getCurrentPlayer() == Color.WHITE) ? Color.BLACK : Color.WHITE;
             System.out.println("VENCEDOR: " + winner);
         }
+        else if (chessMatch.getDraw()) {
+            System.out.println(ANSI_RED_BACKGROUND + ANSI_WHITE + "!!! EMPATE !!!" + ANSI_RESET);
+            System.out.println("Motivo: " + drawReason(chessMatch.getDrawReason()));
+        }
         else {
             System.out.println("Turno: " + chessMatch.getTurn());
             System.out.println("Aguardando o jogador: " + chessMatch.getCurrentPlayer());
@@ -35,38 +43,25 @@ public class UI {
             }
         }
     }
+    private static String drawReason(DrawReason reason) {
+        switch (reason) {
+            case STALEMATE: return "afogamento";
+            case THREEFOLD_REPETITION: return "tripla repetição";
+            case FIFTY_MOVE_RULE: return "regra dos cinquenta lances";
+            default: return "material insuficiente";
+        }
+    }
     public static void printBoard(ChessPiece[][] pieces) {
-        printBoard(pieces, new boolean[pieces.length][pieces.length]);
+        renderer.render(pieces, null);
     }
     public static void printBoard(ChessPiece[][] pieces, boolean[][] possibleMoves) {
-        System.out.println("-------------------------");
-        
-        for (int i = 0; i < pieces.length; i++) {
-            System.out.print((8 - i) + " "); 
-            
-            for (int j = 0; j < pieces.length; j++) {
-                if (possibleMoves[i][j]) {
-                    System.out.print(ANSI_GREEN_BACKGROUND); 
-                }
-                printPiece(pieces[i][j]); 
-                System.out.print(ANSI_RESET); 
-            }
-            System.out.println(); 
-        }
-        System.out.println("  a b c d e f g h");
-        System.out.println("-------------------------");
+        renderer.render(pieces, possibleMoves);
     }
-
-    private static void printPiece(ChessPiece piece) {
-        if (piece == null) {
-            System.out.print("- "); 
-        } else {
-            if (piece.getColor() == Color.WHITE) {
-                System.out.print(ANSI_YELLOW + piece + ANSI_RESET + " ");
-            } else {
-                System.out.print(ANSI_WHITE + piece + ANSI_RESET + " ");
-            }
-        }
+    public static void printBoards(ChessMatch... chessMatches) {
+        renderer.render(chessMatches);
+    }
+    public static void printBoardChanges(ChessMatch... chessMatches) {
+        renderer.renderChanges(chessMatches);
     }
     
     public static ChessPosition readChessPosition(Scanner sc) {
@@ -0,0 +1,289 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.List;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.MoveStatus;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.nnue.Network;
+import chess.engine.nnue.NnueEvaluator;
+
+// Front-end UCI: lê os comandos da GUI em stdin e busca numa thread separada,
+// para que stop, ponderhit e isready sejam atendidos durante a busca.
+public class Uci {
+
+    private static final List<String> GO_PARAMETERS = List.of("wtime", "btime", "winc", "binc", "movestogo", "movetime", "depth", "nodes");
+
+    private final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+
+    private ChessMatch chessMatch = new ChessMatch();
+    private Network network;
+    private Search search = newSearch();
+    private Thread searchThread;
+    private long moveOverhead = 30;
+
+    public static void main(String[] args) throws IOException {
+        new Uci().loop();
+    }
+
+    private void loop() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] tokens = line.trim().split("\\s+");
+            switch (tokens[0]) {
+                case "uci":
+                    send("id name ChessSystemJava");
+                    send("id author GabrielPPortuguez");
+                    send("option name Move Overhead type spin default 30 min 0 max 5000");
+                    send("option name Ponder type check default false");
+                    send("option name EvalFile type string default <empty>");
+                    send("uciok");
+                    break;
+                case "isready":
+                    send("readyok");
+                    break;
+                case "setoption":
+                    setOption(tokens);
+                    break;
+                case "ucinewgame":
+                    stopSearch();
+                    chessMatch = new ChessMatch();
+                    search = newSearch();
+                    break;
+                case "position":
+                    stopSearch();
+                    position(tokens);
+                    break;
+                case "go":
+                    stopSearch();
+                    go(tokens);
+                    break;
+                case "stop":
+                    stopSearch();
+                    break;
+                case "ponderhit":
+                    search.ponderHit();
+                    break;
+                case "quit":
+                    stopSearch();
+                    return;
+                default:
+                    break;
+            }
+        }
+        stopSearch();
+    }
+
+    private void setOption(String[] tokens) {
+        int name = indexOf(tokens, "name");
+        int value = indexOf(tokens, "value");
+        if (name < 0 || value < 0 || value + 1 >= tokens.length) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = name + 1; i < value; i++) {
+            sb.append((i > name + 1) ? " " : "").append(tokens[i]);
+        }
+        if (sb.toString().equalsIgnoreCase("Move Overhead")) {
+            try {
+                moveOverhead = Long.parseLong(tokens[value + 1]);
+            }
+            catch (NumberFormatException e) {
+                send("info string valor inválido: " + tokens[value + 1]);
+            }
+        }
+        else if (sb.toString().equalsIgnoreCase("EvalFile")) {
+            String path = tokens[value + 1];
+            try {
+                network = path.equals("<empty>") ? null : Network.load(Paths.get(path));
+                stopSearch();
+                search = newSearch();
+                send("info string avaliação: " + ((network == null) ? "material" : "NNUE " + path));
+            }
+            catch (IOException e) {
+                send("info string rede não carregada: " + e.getMessage());
+            }
+        }
+    }
+
+    private Search newSearch() {
+        return (network == null) ? new Search(chessMatch) : new Search(chessMatch, new NnueEvaluator(network));
+    }
+
+    private void position(String[] tokens) {
+        int moves = indexOf(tokens, "moves");
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            chessMatch = new ChessMatch();
+        }
+        else if (tokens.length > 2 && tokens[1].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (int i=2; i < ((moves < 0) ? tokens.length : moves); i++) {
+                fen.append(tokens[i]).append(' ');
+            }
+            try {
+                chessMatch = new ChessMatch(fen.toString());
+            }
+            catch (ChessException | IllegalStateException e) {
+                send("info string " + e.getMessage());
+                return;
+            }
+        }
+        else {
+            send("info string use 'position startpos' ou 'position fen <FEN>'");
+            return;
+        }
+        search = newSearch();
+        for (int i = moves + 1; moves >= 0 && i < tokens.length; i++) {
+            MoveStatus status = playUciMove(tokens[i]);
+            if (status != MoveStatus.OK) {
+                send("info string lance " + tokens[i] + " recusado: " + status.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Lance em notação UCI (e2e4, e7e8q); a linha pode ter mais de um dígito em
+    // tabuleiros maiores, então a casa de destino começa na segunda letra.
+    private MoveStatus playUciMove(String move) {
+        int target = 1;
+        while (target < move.length() && Character.isDigit(move.charAt(target))) {
+            target++;
+        }
+        int end = target + 1;
+        while (end < move.length() && Character.isDigit(move.charAt(end))) {
+            end++;
+        }
+        if (target == 1 || end == target + 1) {
+            return MoveStatus.OFF_BOARD;
+        }
+        String promotionType = (end < move.length()) ? move.substring(end).toUpperCase() : "Q";
+        return chessMatch.tryPerformChessMove(move.charAt(0), Integer.parseInt(move.substring(1, target)),
+                move.charAt(target), Integer.parseInt(move.substring(target + 1, end)), promotionType);
+    }
+
+    private void go(String[] tokens) {
+        SearchLimits limits = new SearchLimits();
+        for (int i=1; i<tokens.length; i++) {
+            String name = tokens[i];
+            if (name.equals("infinite")) {
+                limits.setInfinite(true);
+                continue;
+            }
+            if (name.equals("ponder")) {
+                limits.setPonder(true);
+                continue;
+            }
+            if (!GO_PARAMETERS.contains(name)) {
+                continue;
+            }
+            // Um parâmetro sem valor ou com valor inválido é ignorado, como numa
+            // GUI que mande lixo: a busca segue com os demais limites.
+            if (i + 1 >= tokens.length) {
+                send("info string falta o valor de " + name);
+                break;
+            }
+            String value = tokens[++i];
+            try {
+                switch (name) {
+                    case "wtime": limits.setWhiteTime(Long.parseLong(value)); break;
+                    case "btime": limits.setBlackTime(Long.parseLong(value)); break;
+                    case "winc": limits.setWhiteIncrement(Long.parseLong(value)); break;
+                    case "binc": limits.setBlackIncrement(Long.parseLong(value)); break;
+                    case "movestogo": limits.setMovesToGo(Integer.parseInt(value)); break;
+                    case "movetime": limits.setMoveTime(Long.parseLong(value)); break;
+                    case "depth": limits.setDepth(Math.max(1, Math.min(Search.MAX_DEPTH, Integer.parseInt(value)))); break;
+                    case "nodes": limits.setNodes(Long.parseLong(value)); break;
+                    default: break;
+                }
+            }
+            catch (NumberFormatException e) {
+                send("info string valor inválido para " + name + ": " + value);
+            }
+        }
+        Search search = this.search;
+        ChessMatch chessMatch = this.chessMatch;
+        search.setMoveOverhead(moveOverhead);
+        searchThread = new Thread(() -> {
+            SearchResult result = search.search(limits, r -> send(info(chessMatch, r)));
+            if (result.getBestMove() == 0) {
+                send("bestmove 0000");
+            }
+            else if (result.getPonderMove() == 0) {
+                send("bestmove " + chessMatch.moveToString(result.getBestMove()));
+            }
+            else {
+                send("bestmove " + chessMatch.moveToString(result.getBestMove()) + " ponder " + ponderMove(chessMatch, result));
+            }
+        }, "uci-search");
+        searchThread.setDaemon(true);
+        searchThread.start();
+    }
+
+    // O lance de ponder é relativo à posição após o melhor lance.
+    private static String ponderMove(ChessMatch chessMatch, SearchResult result) {
+        chessMatch.playMove(result.getBestMove());
+        String s = chessMatch.moveToString(result.getPonderMove());
+        chessMatch.unmakeMove();
+        return s;
+    }
+
+    // A variante principal é convertida jogando-a sobre a posição e desfazendo
+    // em seguida; é chamado pela thread de busca entre duas iterações.
+    private static String info(ChessMatch chessMatch, SearchResult result) {
+        StringBuilder sb = new StringBuilder("info depth ").append(result.getDepth());
+        if (result.isMate()) {
+            sb.append(" score mate ").append(result.getMateIn());
+        }
+        else {
+            sb.append(" score cp ").append(result.getScore());
+        }
+        sb.append(" nodes ").append(result.getNodes())
+                .append(" nps ").append(result.getNodesPerSecond())
+                .append(" time ").append(result.getTimeMillis())
+                .append(" pv");
+        int played = 0;
+        for (int move : result.getPv()) {
+            sb.append(' ').append(chessMatch.moveToString(move));
+            chessMatch.playMove(move);
+            played++;
+        }
+        while (played-- > 0) {
+            chessMatch.unmakeMove();
+        }
+        return sb.toString();
+    }
+
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        search.stop();
+        try {
+            searchThread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private static int indexOf(String[] tokens, String token) {
+        for (int i=0; i<tokens.length; i++) {
+            if (tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static synchronized void send(String line) {
+        System.out.println(line);
+        System.out.flush();
+    }
+}
\ No newline at end of file
@@ -4,7 +4,8 @@ public class Board {
 
     private int rows; 
     private int columns; 
-    private Piece[][] pieces;
+    private Piece[] pieces;
+    private MoveTables moveTables;
 
     public Board(int rows, int columns) {
         if (rows < 1 || columns < 1) {
@@ -12,7 +13,8 @@ public class Board {
         }
         this.rows = rows;
         this.columns = columns;
-        pieces = new Piece[rows][columns];
+        pieces = new Piece[rows * columns];
+        moveTables = MoveTables.forShape(rows, columns);
     }
 
     public int getRows() {
@@ -22,6 +24,10 @@ public class Board {
     public int getColumns() {
         return columns;
     }
+
+    public MoveTables getMoveTables() {
+        return moveTables;
+    }
     
     private boolean positionExists(int row, int column) {
         return row >= 0 && row < rows && column >= 0 && column < columns;
@@ -42,21 +48,28 @@ public class Board {
         if (!positionExists(row, column)) {
             throw new BoardException("Posição não está no tabuleiro.");
         }
-        return pieces[row][column];
+        return pieces[row * columns + column];
+    }
+
+    public Piece piece(int square) {
+        if (square < 0 || square >= pieces.length) {
+            throw new BoardException("Posição não está no tabuleiro.");
+        }
+        return pieces[square];
     }
     
     public Piece piece(Position position) {
         if (!positionExists(position)) {
             throw new BoardException("Posição não está no tabuleiro.");
         }
-        return pieces[position.getRow()][position.getColumn()];
+        return pieces[position.getRow() * columns + position.getColumn()];
     }
 
     public void placePiece(Piece piece, Position position) {
         if (thereIsAPiece(position)) {
             throw new BoardException("Já existe uma peça na posição " + position + "!");
         }
-        pieces[position.getRow()][position.getColumn()] = piece;
+        pieces[position.getRow() * columns + position.getColumn()] = piece;
         piece.position = position; 
     }
 
@@ -69,7 +82,7 @@ public class Board {
         }
         Piece aux = piece(position);
         aux.position = null;
-        pieces[position.getRow()][position.getColumn()] = null; 
+        pieces[position.getRow() * columns + position.getColumn()] = null; 
         return aux;
     }
 }
\ No newline at end of file
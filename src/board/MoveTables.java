@@ -0,0 +1,121 @@
+package board;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MoveTables {
+
+    public static final int NORTH = 0;
+    public static final int WEST = 1;
+    public static final int SOUTH = 2;
+    public static final int EAST = 3;
+    public static final int NORTH_WEST = 4;
+    public static final int NORTH_EAST = 5;
+    public static final int SOUTH_WEST = 6;
+    public static final int SOUTH_EAST = 7;
+
+    private static final int[][] DIRECTIONS = {
+        {-1, 0}, {0, -1}, {1, 0}, {0, 1}, {-1, -1}, {-1, 1}, {1, -1}, {1, 1}
+    };
+    private static final int[][] KNIGHT_OFFSETS = {
+        {-2, -1}, {-2, 1}, {2, -1}, {2, 1}, {-1, -2}, {1, -2}, {-1, 2}, {1, 2}
+    };
+
+    private static final Map<Long, MoveTables> cache = new ConcurrentHashMap<>();
+
+    private final int rows;
+    private final int columns;
+    private final int[] rowOf;
+    private final int[] columnOf;
+    private final int[][][] rays;
+    private final int[][] knightMoves;
+    private final int[][] kingMoves;
+
+    private MoveTables(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        int squares = rows * columns;
+        rowOf = new int[squares];
+        columnOf = new int[squares];
+        rays = new int[squares][DIRECTIONS.length][];
+        knightMoves = new int[squares][];
+        kingMoves = new int[squares][];
+
+        for (int square=0; square<squares; square++) {
+            int row = square / columns;
+            int column = square % columns;
+            rowOf[square] = row;
+            columnOf[square] = column;
+            for (int d=0; d<DIRECTIONS.length; d++) {
+                rays[square][d] = ray(row, column, DIRECTIONS[d][0], DIRECTIONS[d][1]);
+            }
+            knightMoves[square] = leaps(row, column, KNIGHT_OFFSETS);
+            kingMoves[square] = leaps(row, column, DIRECTIONS);
+        }
+    }
+
+    // As tabelas dependem apenas das dimensões do tabuleiro, então são
+    // calculadas uma única vez por formato e compartilhadas entre tabuleiros.
+    public static MoveTables forShape(int rows, int columns) {
+        return cache.computeIfAbsent(((long)rows << 32) | columns, key -> new MoveTables(rows, columns));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int square(int row, int column) {
+        return row * columns + column;
+    }
+
+    public int row(int square) {
+        return rowOf[square];
+    }
+
+    public int column(int square) {
+        return columnOf[square];
+    }
+
+    public int[] ray(int square, int direction) {
+        return rays[square][direction];
+    }
+
+    public int[] knightMoves(int square) {
+        return knightMoves[square];
+    }
+
+    public int[] kingMoves(int square) {
+        return kingMoves[square];
+    }
+
+    private int[] ray(int row, int column, int dRow, int dColumn) {
+        int length = 0;
+        for (int r = row + dRow, c = column + dColumn; r >= 0 && r < rows && c >= 0 && c < columns; r += dRow, c += dColumn) {
+            length++;
+        }
+        int[] ray = new int[length];
+        for (int i=0; i<length; i++) {
+            ray[i] = square(row + (i + 1) * dRow, column + (i + 1) * dColumn);
+        }
+        return ray;
+    }
+
+    private int[] leaps(int row, int column, int[][] offsets) {
+        int length = 0;
+        int[] targets = new int[offsets.length];
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = column + offset[1];
+            if (r >= 0 && r < rows && c >= 0 && c < columns) {
+                targets[length++] = square(r, c);
+            }
+        }
+        int[] result = new int[length];
+        System.arraycopy(targets, 0, result, 0, length);
+        return result;
+    }
+}
\ No newline at end of file
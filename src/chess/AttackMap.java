@@ -0,0 +1,174 @@
+package chess;
+
+import board.Board;
+import board.MoveTables;
+import chess.pieces.Bishop;
+import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
+import chess.pieces.Queen;
+import chess.pieces.Rook;
+
+// Casas atacadas por cada peça e, para cada casa, o conjunto das casas das peças
+// de cada cor que a atacam. Cada conjunto ocupa words palavras de 64 bits, uma
+// só no 8x8, para servir também aos tabuleiros maiores. ChessMatch avisa cada
+// peça posta ou tirada do tabuleiro; além dos ataques da própria peça, só mudam
+// os das peças de longo alcance que atacavam a casa, cujo raio passa a parar
+// nela ou a continuar depois dela.
+class AttackMap {
+
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+
+    private final Board board;
+    private final MoveTables tables;
+    private final int words;
+    // attacks[square * words + w], attackedBy[cor][square * words + w]
+    private final long[] attacks;
+    private final long[][] attackedBy;
+    private final long[] sliders;
+    private final long[] computed;
+
+    AttackMap(Board board) {
+        int squares = board.getRows() * board.getColumns();
+        this.board = board;
+        this.tables = board.getMoveTables();
+        words = (squares + 63) >>> 6;
+        attacks = new long[squares * words];
+        attackedBy = new long[2][squares * words];
+        sliders = new long[words];
+        computed = new long[words];
+    }
+
+    boolean isAttacked(int square, Color by) {
+        long[] byColor = attackedBy[index(by)];
+        if (words == 1) {
+            return byColor[square] != 0;
+        }
+        for (int w = square * words, end = w + words; w < end; w++) {
+            if (byColor[w] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Casas das peças de by que atacam square, em ordem crescente.
+    int[] attackers(int square, Color by) {
+        long[] byColor = attackedBy[index(by)];
+        int count = 0;
+        for (int w=0; w<words; w++) {
+            count += Long.bitCount(byColor[square * words + w]);
+        }
+        int[] squares = new int[count];
+        count = 0;
+        for (int w=0; w<words; w++) {
+            for (long bits = byColor[square * words + w]; bits != 0; bits &= bits - 1) {
+                squares[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return squares;
+    }
+
+    void piecePlaced(ChessPiece piece, int square) {
+        refreshSliders(square);
+        if (piece instanceof Bishop || piece instanceof Rook || piece instanceof Queen) {
+            sliders[square >>> 6] |= 1L << square;
+        }
+        compute(piece, square);
+        setAttacks(square, piece);
+    }
+
+    void pieceRemoved(ChessPiece piece, int square) {
+        clearComputed();
+        setAttacks(square, piece);
+        sliders[square >>> 6] &= ~(1L << square);
+        refreshSliders(square);
+    }
+
+    // Os sliders que atacam square continuam atacando-a depois do recálculo (o
+    // raio para nela ou passa por ela), então os bits lidos não mudam no laço.
+    private void refreshSliders(int square) {
+        for (int w=0; w<words; w++) {
+            long bits = (attackedBy[WHITE][square * words + w] | attackedBy[BLACK][square * words + w]) & sliders[w];
+            for (; bits != 0; bits &= bits - 1) {
+                int s = (w << 6) + Long.numberOfTrailingZeros(bits);
+                ChessPiece p = (ChessPiece)board.piece(s);
+                compute(p, s);
+                setAttacks(s, p);
+            }
+        }
+    }
+
+    // Troca os ataques da peça em square pelos de computed.
+    private void setAttacks(int square, ChessPiece piece) {
+        long[] byColor = attackedBy[index(piece.getColor())];
+        int word = square >>> 6;
+        long bit = 1L << square;
+        int base = square * words;
+        for (int w=0; w<words; w++) {
+            for (long changed = attacks[base + w] ^ computed[w]; changed != 0; changed &= changed - 1) {
+                int target = (w << 6) + Long.numberOfTrailingZeros(changed);
+                byColor[target * words + word] ^= bit;
+            }
+            attacks[base + w] = computed[w];
+        }
+    }
+
+    // Ataques da peça em square, em computed.
+    private void compute(ChessPiece piece, int square) {
+        clearComputed();
+        if (piece instanceof Pawn) {
+            int row = tables.row(square) + ((piece.getColor() == Color.WHITE) ? -1 : 1);
+            int column = tables.column(square);
+            if (row >= 0 && row < board.getRows()) {
+                if (column > 0) {
+                    set(tables.square(row, column - 1));
+                }
+                if (column < board.getColumns() - 1) {
+                    set(tables.square(row, column + 1));
+                }
+            }
+        }
+        else if (piece instanceof Knight) {
+            leaps(tables.knightMoves(square));
+        }
+        else if (piece instanceof King) {
+            leaps(tables.kingMoves(square));
+        }
+        else {
+            boolean straight = piece instanceof Rook || piece instanceof Queen;
+            boolean diagonal = piece instanceof Bishop || piece instanceof Queen;
+            for (int direction = MoveTables.NORTH; direction <= MoveTables.SOUTH_EAST; direction++) {
+                if (direction >= MoveTables.NORTH_WEST ? diagonal : straight) {
+                    for (int s : tables.ray(square, direction)) {
+                        set(s);
+                        if (board.piece(s) != null) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void leaps(int[] targets) {
+        for (int s : targets) {
+            set(s);
+        }
+    }
+
+    private void clearComputed() {
+        for (int w=0; w<words; w++) {
+            computed[w] = 0L;
+        }
+    }
+
+    private void set(int square) {
+        computed[square >>> 6] |= 1L << square;
+    }
+
+    private static int index(Color color) {
+        return (color == Color.WHITE) ? WHITE : BLACK;
+    }
+}
\ No newline at end of file
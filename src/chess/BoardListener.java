@@ -0,0 +1,11 @@
+package chess;
+
+// Recebe cada peça tirada ou posta no tabuleiro pelos lances e seus desfazimentos,
+// inclusive os da busca e os testados em testCheckMate, para quem mantém estado
+// incremental da posição. As casas são numeradas linha a linha (a8 = 0).
+public interface BoardListener {
+
+    void pieceRemoved(ChessPiece piece, int square);
+
+    void piecePlaced(ChessPiece piece, int square);
+}
\ No newline at end of file
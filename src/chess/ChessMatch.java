@@ -11,6 +11,7 @@ import chess.pieces.Knight;
 import chess.pieces.Pawn;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class ChessMatch {
 
@@ -20,14 +21,77 @@ public class ChessMatch {
     private boolean check; 
     private boolean checkMate; 
     private ChessPiece enPassantVulnerable;
+    private boolean draw;
+    private DrawReason drawReason;
+
+    private PositionKeys positionKeys;
+    private StaticExchange staticExchange;
+    private AttackMap attackMap;
+    private PieceLists pieceLists;
+    private int[] pieceSquares;
+    private long[] positionHistory = new long[128];
+    private int positionCount;
+    private int irreversibleIndex;
+    private int halfMoveClock;
+
+    private static final int EN_PASSANT = 1 << 23;
+    private static final int CHECK = 1;
+    private static final int CHECK_MATE = 2;
+
+    // Pilha de lances: cada lance feito em makeMove guarda aqui tudo o que
+    // undoMove precisa para voltar exatamente à posição anterior.
+    private int[] moveRecords = new int[256];
+    private ChessPiece[] capturedPieces = new ChessPiece[256];
+    private ChessPiece[] promotedPawns = new ChessPiece[256];
+    private ChessPiece[] enPassantHistory = new ChessPiece[256];
+    private int[] clockHistory = new int[256];
+    private int[] irreversibleHistory = new int[256];
+    private int[] stateHistory = new int[256];
+    private int ply;
+
+    private int[] gameMoves = new int[256];
+    private int gameLength;
+    private List<List<ChessPiece>> promotionPool = new ArrayList<>();
+    private List<MoveListener> moveListeners = new ArrayList<>();
+    private BoardListener boardListener;
 
     public ChessMatch() {
         board = new Board(8, 8);
+        positionKeys = new PositionKeys(board);
+        staticExchange = new StaticExchange(board);
+        attackMap = new AttackMap(board);
+        pieceLists = new PieceLists(board.getRows() * board.getColumns());
+        pieceSquares = new int[board.getRows() * board.getColumns()];
+        for (int i=0; i<8; i++) {
+            promotionPool.add(new ArrayList<>());
+        }
         initialSetup(); 
         turn = 1;
         currentPlayer = Color.WHITE; 
         check = false;
         checkMate = false; 
+        recordPosition(true);
+    }
+    
+    // Posição inicial lida de uma FEN. Os direitos de roque ausentes viram reis e
+    // torres já movidos, e a casa de en passant indica o peão que acabou de avançar.
+    public ChessMatch(String fen) {
+        board = new Board(8, 8);
+        positionKeys = new PositionKeys(board);
+        staticExchange = new StaticExchange(board);
+        attackMap = new AttackMap(board);
+        pieceLists = new PieceLists(board.getRows() * board.getColumns());
+        pieceSquares = new int[board.getRows() * board.getColumns()];
+        for (int i=0; i<8; i++) {
+            promotionPool.add(new ArrayList<>());
+        }
+        loadFen(fen);
+        recordPosition(true);
+        check = testCheck(currentPlayer);
+        checkMate = check && testCheckMate(currentPlayer);
+        if (!checkMate) {
+            testDraw();
+        }
     }
     
     public int getTurn() { return turn; }
@@ -35,38 +99,516 @@ public class ChessMatch {
     public boolean getCheck() { return check; }
     public boolean getCheckMate() { return checkMate; }
     public ChessPiece getEnPassantVulnerable() { return enPassantVulnerable; }
+    public boolean getDraw() { return draw; }
+    public DrawReason getDrawReason() { return drawReason; }
+    public int getHalfMoveClock() { return halfMoveClock; }
+    public long getPositionKey() { return positionHistory[positionCount - 1]; }
+    public boolean canUndo() { return ply > 0; }
+    public boolean canRedo() { return ply < gameLength; }
+    public int getPly() { return ply; }
 
     public ChessPiece[][] getPieces() {
         ChessPiece[][] mat = new ChessPiece[board.getRows()][board.getColumns()];
+        copyPieces(mat);
+        return mat;
+    }
+    
+    public void copyPieces(ChessPiece[][] mat) {
         for (int i=0; i<board.getRows(); i++) {
             for (int j=0; j<board.getColumns(); j++) {
                 mat[i][j] = (ChessPiece) board.piece(i, j); 
             }
         }
-        return mat;
     }
     
+    public int getRows() { return board.getRows(); }
+    public int getColumns() { return board.getColumns(); }
+    
+    public void addMoveListener(MoveListener listener) {
+        moveListeners.add(listener);
+    }
+    
+    public void removeMoveListener(MoveListener listener) {
+        moveListeners.remove(listener);
+    }
+    
+    // Um só BoardListener por partida, chamado a cada peça movida: fica fora da
+    // lista de MoveListener para não custar nada à busca quando não há nenhum.
+    public BoardListener getBoardListener() {
+        return boardListener;
+    }
+
+    public void setBoardListener(BoardListener listener) {
+        boardListener = listener;
+    }
+
+    // Consultas ao mapa de ataques, mantido a cada peça movida: servem ao roque e
+    // a dicas na interface sem gerar os lances das peças.
+    public boolean isAttacked(int row, int column, Color by) {
+        return attackMap.isAttacked(row * board.getColumns() + column, by);
+    }
+
+    public boolean isAttacked(ChessPosition position, Color by) {
+        Position p = position.toPosition(board.getRows());
+        return isAttacked(p.getRow(), p.getColumn(), by);
+    }
+
+    public List<ChessPiece> getAttackers(ChessPosition position, Color by) {
+        Position p = position.toPosition(board.getRows());
+        List<ChessPiece> list = new ArrayList<>();
+        for (int square : attackMap.attackers(squareIndex(p), by)) {
+            list.add((ChessPiece)board.piece(square));
+        }
+        return list;
+    }
+
     public boolean[][] possibleMoves(ChessPosition sourcePosition) {
-        Position position = sourcePosition.toPosition();
+        Position position = sourcePosition.toPosition(board.getRows());
         validateSourcePosition(position); 
         return board.piece(position).possibleMoves();
     }
     
+    // Avaliação estática da troca (SEE) iniciada pelo lance, em centésimos de peão,
+    // calculada apenas lendo o tabuleiro, sem executar os lances da sequência.
+    public int staticExchange(ChessPosition sourcePosition, ChessPosition targetPosition) {
+        Position source = sourcePosition.toPosition(board.getRows());
+        Position target = targetPosition.toPosition(board.getRows());
+        if (!board.positionExists(source) || !board.positionExists(target) || board.piece(source) == null) {
+            throw new ChessException("Não há peça na posição de origem.");
+        }
+        return staticExchange.evaluate(squareIndex(source), squareIndex(target));
+    }
+    
+    public boolean isPromotionMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
+        Piece p = board.piece(sourcePosition.toPosition(board.getRows()));
+        return p instanceof Pawn && isPromotionRow((ChessPiece)p, targetPosition.toPosition(board.getRows()));
+    }
+    
     public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
-        Position source = sourcePosition.toPosition();
-        Position target = targetPosition.toPosition();
-        
-        validateSourcePosition(source);
-        validateTargetPosition(source, target);
+        return performChessMove(sourcePosition, targetPosition, "Q");
+    }
+    
+    public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition, String promotionType) {
+        MoveStatus status = tryPerformChessMove(sourcePosition, targetPosition, promotionType);
+        if (status != MoveStatus.OK) {
+            throw new ChessException(status.getMessage());
+        }
+        return capturedPieces[ply - 1];
+    }
+    
+    public MoveStatus tryPerformChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
+        return tryPerformChessMove(sourcePosition, targetPosition, "Q");
+    }
+    
+    public MoveStatus tryPerformChessMove(char sourceColumn, int sourceRow, char targetColumn, int targetRow, String promotionType) {
+        int rows = board.getRows();
+        return tryPerformChessMove(new Position(rows - sourceRow, sourceColumn - 'a'), new Position(rows - targetRow, targetColumn - 'a'), promotionType);
+    }
+    
+    // Lance no formato de generateMoves, jogado com todas as verificações de
+    // performChessMove (xeque-mate, empates e eventos), ao contrário de playMove.
+    public MoveStatus tryPerformChessMove(int move) {
+        return tryPerformChessMove(squarePosition(move & 0x3FF), squarePosition((move >> 10) & 0x3FF), promotionType(move));
+    }
 
-        Piece capturedPiece = makeMove(source, target); 
+    public MoveStatus tryPerformChessMove(ChessPosition sourcePosition, ChessPosition targetPosition, String promotionType) {
+        return tryPerformChessMove(sourcePosition.toPosition(board.getRows()), targetPosition.toPosition(board.getRows()), promotionType);
+    }
+    
+    // Variante sem exceções de performChessMove: cada lance rejeitado devolve
+    // apenas o motivo, sem construir (nem preencher o stack trace de) uma ChessException.
+    private MoveStatus tryPerformChessMove(Position source, Position target, String promotionType) {
+        MoveStatus status = sourceStatus(source);
+        if (status == MoveStatus.OK) {
+            status = targetStatus(source, target);
+        }
+        if (status == MoveStatus.OK && !isValidPromotionType(promotionType)) {
+            status = MoveStatus.INVALID_PROMOTION;
+        }
+        if (status != MoveStatus.OK) {
+            return status;
+        }
+
+        Piece capturedPiece = makeMove(source, target, promotionType); 
         
         if (testCheck(currentPlayer)) {
-            undoMove(source, target, capturedPiece); 
-            throw new ChessException("Você não pode se colocar em xeque!");
+            undoMove(); 
+            return MoveStatus.SELF_CHECK;
         }
         
+        recordGameMove();
+        finishMove(source, target, capturedPiece);
+        return MoveStatus.OK;
+    }
+    
+    // Lances codificados em um int (origem | destino << 10 | promoção << 20, com as
+    // casas numeradas linha a linha), usados pela busca para gerar e jogar lances
+    // sem criar ChessPosition nem as exceções da API de performChessMove.
+    public int generateMoves(int[] moves) {
+        int count = 0;
+        int promotionRow = (currentPlayer == Color.WHITE) ? 0 : board.getRows() - 1;
+        for (int pieceType=PieceLists.PAWN; pieceType<PieceLists.TYPES; pieceType++) {
+            for (int index=0; index<pieceLists.count(currentPlayer, pieceType); index++) {
+                int source = pieceLists.square(currentPlayer, pieceType, index);
+                boolean[][] mat = board.piece(source).possibleMoves();
+                for (int k=0; k<board.getRows(); k++) {
+                    for (int l=0; l<board.getColumns(); l++) {
+                        if (!mat[k][l]) {
+                            continue;
+                        }
+                        int move = source | (k * board.getColumns() + l) << 10;
+                        if (pieceType == PieceLists.PAWN && k == promotionRow) {
+                            for (int type=1; type<=4; type++) {
+                                moves[count++] = move | type << 20;
+                            }
+                        }
+                        else {
+                            moves[count++] = move;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+    
+    // Joga um lance gerado por generateMoves, recusando-o (sem alterar nada) se
+    // deixar o próprio rei em xeque. Não testa xeque-mate nem empates: quem busca
+    // detecta a falta de lances e usa getHalfMoveClock/isRepetition. O lance não
+    // entra no histórico da partida (getGameMoves, redo): só os de
+    // tryPerformChessMove e performChessMove entram.
+    public boolean playMove(int move) {
+        Position source = squarePosition(move & 0x3FF);
+        Position target = squarePosition((move >> 10) & 0x3FF);
+        Piece capturedPiece = makeMove(source, target, promotionType(move));
+        if (testCheck(currentPlayer)) {
+            undoMove();
+            return false;
+        }
+        advance(source, target, capturedPiece);
+        return true;
+    }
+    
+    public boolean isRepetition() {
+        long current = positionHistory[positionCount - 1];
+        for (int i = positionCount - 3; i >= irreversibleIndex; i -= 2) {
+            if (positionHistory[i] == current) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public ChessPiece getPiece(int row, int column) {
+        return (ChessPiece)board.piece(row, column);
+    }
+    
+    public ChessPiece getMovingPiece(int move) {
+        return (ChessPiece)board.piece(move & 0x3FF);
+    }
+    
+    public ChessPiece getCapturedPiece(int move) {
+        return (ChessPiece)board.piece((move >> 10) & 0x3FF);
+    }
+    
+    public int staticExchange(int move) {
+        return staticExchange.evaluate(move & 0x3FF, (move >> 10) & 0x3FF);
+    }
+    
+    public String moveToString(int move) {
+        String s = ChessPosition.fromPosition(squarePosition(move & 0x3FF), board.getRows()).toString()
+                + ChessPosition.fromPosition(squarePosition((move >> 10) & 0x3FF), board.getRows());
+        return (((move >> 20) & 7) == 0) ? s : s + promotionType(move).toLowerCase();
+    }
+    
+    // Inverso de moveToString (e2e4, e7e8q): devolve o lance codificado se a peça
+    // da vez puder fazê-lo, ou 0. Sem a letra da promoção, promove a dama.
+    public int parseMove(String s) {
+        int target = 1;
+        while (target < s.length() && Character.isDigit(s.charAt(target))) {
+            target++;
+        }
+        int end = target + 1;
+        while (end < s.length() && Character.isDigit(s.charAt(end))) {
+            end++;
+        }
+        if (target == 1 || target > 3 || end == target + 1 || end - target > 3 || end < s.length() - 1) {
+            return 0;
+        }
+        int rows = board.getRows();
+        Position source = new Position(rows - Integer.parseInt(s.substring(1, target)), s.charAt(0) - 'a');
+        Position targetPosition = new Position(rows - Integer.parseInt(s.substring(target + 1, end)), s.charAt(target) - 'a');
+        if (!board.positionExists(source) || !board.positionExists(targetPosition)) {
+            return 0;
+        }
+        ChessPiece p = (ChessPiece)board.piece(source);
+        if (p == null || p.getColor() != currentPlayer || !p.possibleMoves()[targetPosition.getRow()][targetPosition.getColumn()]) {
+            return 0;
+        }
+        int move = squareIndex(source) | squareIndex(targetPosition) << 10;
+        if (p instanceof Pawn && isPromotionRow(p, targetPosition)) {
+            int type = "BNRQ".indexOf((end < s.length()) ? Character.toUpperCase(s.charAt(end)) : 'Q');
+            if (type < 0) {
+                return 0;
+            }
+            move |= (type + 1) << 20;
+        }
+        return move;
+    }
+    
+    // Notação algébrica da PGN (Nf3, exd5, O-O, e8=Q+), com a desambiguação e o
+    // sufixo de xeque ou mate. O lance deve ser legal na posição atual.
+    public String moveToSan(int move) {
+        return san(move, true);
+    }
+
+    // Inverso de moveToSan; aceita também o lance sem sufixos, 0-0, promoção sem o
+    // sinal de igual e notação UCI. Devolve 0 se nenhum lance legal corresponder.
+    public int parseSan(String s) {
+        String san = s.replaceAll("[+#!?]+$", "").replace("0-0-0", "O-O-O").replace("0-0", "O-O").replace("=", "");
+        int[] moves = new int[256];
+        int count = generateMoves(moves);
+        for (int i=0; i<count; i++) {
+            int move = moves[i];
+            if (isLegal(squarePosition(move & 0x3FF), squarePosition((move >> 10) & 0x3FF)) && san(move, false).replace("=", "").equals(san)) {
+                return move;
+            }
+        }
+        int move = parseMove(san.toLowerCase());
+        return (move != 0 && isLegal(squarePosition(move & 0x3FF), squarePosition((move >> 10) & 0x3FF))) ? move : 0;
+    }
+
+    private String san(int move, boolean suffix) {
+        Position source = squarePosition(move & 0x3FF);
+        Position target = squarePosition((move >> 10) & 0x3FF);
+        ChessPiece p = (ChessPiece)board.piece(source);
+        StringBuilder sb = new StringBuilder();
+        if (p instanceof King && Math.abs(target.getColumn() - source.getColumn()) == 2) {
+            sb.append((target.getColumn() > source.getColumn()) ? "O-O" : "O-O-O");
+        }
+        else {
+            boolean capture = board.piece(target) != null || (p instanceof Pawn && target.getColumn() != source.getColumn());
+            String square = ChessPosition.fromPosition(source, board.getRows()).toString();
+            if (p instanceof Pawn) {
+                if (capture) {
+                    sb.append(square.charAt(0));
+                }
+            }
+            else {
+                sb.append(p.toString());
+                sb.append(disambiguation(p, source, target, square));
+            }
+            if (capture) {
+                sb.append('x');
+            }
+            sb.append(ChessPosition.fromPosition(target, board.getRows()));
+            if (((move >> 20) & 7) != 0) {
+                sb.append('=').append(promotionType(move));
+            }
+        }
+        if (suffix) {
+            makeMove(source, target, promotionType(move));
+            ChessPiece moved = (ChessPiece)board.piece(target);
+            enPassantVulnerable = (moved instanceof Pawn && Math.abs(target.getRow() - source.getRow()) == 2) ? moved : null;
+            Color opponent = opponent(currentPlayer);
+            if (testCheck(opponent)) {
+                sb.append(testCheckMate(opponent) ? '#' : '+');
+            }
+            undoMove();
+        }
+        return sb.toString();
+    }
+
+    // Coluna, linha ou as duas, conforme o que distingue a peça das outras do mesmo
+    // tipo que também podem ir legalmente para o destino.
+    private String disambiguation(ChessPiece p, Position source, Position target, String square) {
+        boolean ambiguous = false;
+        boolean sameColumn = false;
+        boolean sameRow = false;
+        int n = pieceLists.copySquares(p.getColor(), PieceLists.type(p), pieceSquares);
+        for (int k=0; k<n; k++) {
+            Position position = squarePosition(pieceSquares[k]);
+            ChessPiece other = (ChessPiece)board.piece(position);
+            if (other == p || !other.possibleMoves()[target.getRow()][target.getColumn()] || !isLegal(position, target)) {
+                continue;
+            }
+            ambiguous = true;
+            sameColumn |= position.getColumn() == source.getColumn();
+            sameRow |= position.getRow() == source.getRow();
+        }
+        if (!ambiguous) {
+            return "";
+        }
+        return !sameColumn ? square.substring(0, 1) : !sameRow ? square.substring(1) : square;
+    }
+
+    private boolean isLegal(Position source, Position target) {
+        makeMove(source, target, "Q");
+        boolean legal = !testCheck(currentPlayer);
+        undoMove();
+        return legal;
+    }
+
+    public String getFen() {
+        StringBuilder sb = new StringBuilder();
+        String castling = "";
+        for (int i=0; i<board.getRows(); i++) {
+            int empty = 0;
+            for (int j=0; j<board.getColumns(); j++) {
+                ChessPiece p = (ChessPiece)board.piece(i, j);
+                if (p == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append((p.getColor() == Color.WHITE) ? p.toString() : p.toString().toLowerCase());
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (i < board.getRows() - 1) {
+                sb.append('/');
+            }
+        }
+        int rights = getCastlingRights();
+        for (int i=0; i<4; i++) {
+            if ((rights & (1 << i)) != 0) {
+                castling += "KQkq".charAt(i);
+            }
+        }
+        sb.append((currentPlayer == Color.WHITE) ? " w " : " b ").append(castling.isEmpty() ? "-" : castling).append(' ');
+        if (enPassantVulnerable == null) {
+            sb.append('-');
+        }
+        else {
+            Position pawn = enPassantVulnerable.getPosition();
+            int behind = pawn.getRow() + ((enPassantVulnerable.getColor() == Color.WHITE) ? 1 : -1);
+            sb.append(ChessPosition.fromPosition(new Position(behind, pawn.getColumn()), board.getRows()));
+        }
+        sb.append(' ').append(halfMoveClock).append(' ').append((turn + 1) / 2);
+        return sb.toString();
+    }
+
+    // Direitos de roque em bits, na ordem da FEN: 1 = K, 2 = Q, 4 = k, 8 = q.
+    public int getCastlingRights() {
+        int rights = 0;
+        for (Color color : new Color[] {Color.WHITE, Color.BLACK}) {
+            ChessPiece king = King(color);
+            int shift = (color == Color.WHITE) ? 0 : 2;
+            if (king.isFirstMove()) {
+                Position position = king.getPosition();
+                if (isUnmovedRook(position.getRow(), position.getColumn() + 3, color)) {
+                    rights |= 1 << shift;
+                }
+                if (isUnmovedRook(position.getRow(), position.getColumn() - 4, color)) {
+                    rights |= 2 << shift;
+                }
+            }
+        }
+        return rights;
+    }
+
+    private boolean isUnmovedRook(int row, int column, Color color) {
+        if (column < 0 || column >= board.getColumns()) {
+            return false;
+        }
+        ChessPiece p = (ChessPiece)board.piece(row, column);
+        return p instanceof Rook && p.getColor() == color && p.isFirstMove();
+    }
+
+    // Lances desde a posição inicial (ou a da FEN), incluindo os desfeitos que ainda
+    // podem ser refeitos: só os getPly() primeiros estão no tabuleiro.
+    public int[] getGameMoves() {
+        return Arrays.copyOf(gameMoves, gameLength);
+    }
+
+    public int getLastMove() {
+        return (ply == 0) ? 0 : moveRecords[ply - 1] & ~EN_PASSANT;
+    }
+    
+    // Um lance da partida descarta os que podiam ser refeitos. Se houver lances de
+    // playMove ainda no tabuleiro, abaixo deste, eles passam a fazer parte da
+    // partida também, para que a lista não tenha buracos.
+    private void recordGameMove() {
+        if (ply > gameMoves.length) {
+            gameMoves = Arrays.copyOf(gameMoves, Math.max(ply, gameMoves.length * 2));
+        }
+        for (int i = Math.min(gameLength, ply - 1); i < ply; i++) {
+            gameMoves[i] = moveRecords[i] & ~EN_PASSANT;
+        }
+        gameLength = ply;
+    }
+    
+    public void undo() {
+        if (!canUndo()) {
+            throw new ChessException("Não há lance para desfazer.");
+        }
+        int move = moveRecords[ply - 1];
+        ChessPiece capturedPiece = capturedPieces[ply - 1];
+        unmakeMove();
+        
+        if (!moveListeners.isEmpty()) {
+            Position source = squarePosition(move & 0x3FF);
+            ChessPiece movedPiece = (ChessPiece)board.piece(source);
+            int flags = MoveEvent.UNDO | ((capturedPiece != null) ? MoveEvent.CAPTURE : 0) | (((move >> 20) & 7) != 0 ? MoveEvent.PROMOTION : 0);
+            publish(new MoveEvent(ply + 1, ChessPosition.fromPosition(source, board.getRows()), ChessPosition.fromPosition(squarePosition((move >> 10) & 0x3FF), board.getRows()),
+                    movedPiece.toString(), (capturedPiece == null) ? null : capturedPiece.toString(), movedPiece.getColor(), flags));
+        }
+    }
+    
+    // Desfaz o último lance sem avisar os MoveListener: é o par de playMove na
+    // busca, cujos lances nunca foram publicados. undo() fica para voltar lances
+    // da partida.
+    public void unmakeMove() {
+        if (!canUndo()) {
+            throw new ChessException("Não há lance para desfazer.");
+        }
+        undoMove();
+        positionCount--;
+        turn--;
+        currentPlayer = opponent(currentPlayer);
+    }
+    
+    public ChessPiece redo() {
+        if (!canRedo()) {
+            throw new ChessException("Não há lance para refazer.");
+        }
+        int move = gameMoves[ply];
+        Position source = squarePosition(move & 0x3FF);
+        Position target = squarePosition((move >> 10) & 0x3FF);
+        Piece capturedPiece = makeMove(source, target, promotionType(move));
+        return finishMove(source, target, capturedPiece);
+    }
+    
+    private ChessPiece finishMove(Position source, Position target, Piece capturedPiece) {
+        advance(source, target, capturedPiece);
+        ChessPiece movedPiece = (ChessPiece)board.piece(target); 
+        boolean promoted = promotedPawns[ply - 1] != null;
+        
+        if (check && testCheckMate(currentPlayer)) {
+            checkMate = true;
+        }
+        
+        if (!checkMate) {
+            testDraw();
+        }
+        
+        if (!moveListeners.isEmpty()) {
+            int flags = ((capturedPiece != null) ? MoveEvent.CAPTURE : 0) | (check ? MoveEvent.CHECK : 0) | (checkMate ? MoveEvent.CHECK_MATE : 0)
+                    | (draw ? MoveEvent.DRAW : 0) | (promoted ? MoveEvent.PROMOTION : 0);
+            publish(new MoveEvent(ply, ChessPosition.fromPosition(source, board.getRows()), ChessPosition.fromPosition(target, board.getRows()),
+                    movedPiece.toString(), (capturedPiece == null) ? null : capturedPiece.toString(), movedPiece.getColor(), flags));
+        }
+        
+        return (ChessPiece)capturedPiece;
+    }
+    
+    private void advance(Position source, Position target, Piece capturedPiece) {
         ChessPiece movedPiece = (ChessPiece)board.piece(target); 
+        boolean promoted = promotedPawns[ply - 1] != null;
         
         if (movedPiece instanceof Pawn && (target.getRow() == source.getRow() - 2 || target.getRow() == source.getRow() + 2)) {
             enPassantVulnerable = movedPiece; 
@@ -75,15 +617,19 @@ public class ChessMatch {
             enPassantVulnerable = null; 
         }
         
-        check = (testCheck(opponent(currentPlayer))) ? true : false;
+        boolean irreversible = movedPiece instanceof Pawn || promoted || capturedPiece != null;
+        halfMoveClock = irreversible ? 0 : halfMoveClock + 1;
         
-        if (testCheck(opponent(currentPlayer)) && testCheckMate(opponent(currentPlayer))) {
-            checkMate = true;
-        }
+        check = testCheck(opponent(currentPlayer));
 
         nextTurn();
-        
-        return (ChessPiece)capturedPiece;
+        recordPosition(irreversible);
+    }
+    
+    private void publish(MoveEvent event) {
+        for (MoveListener listener : moveListeners) {
+            listener.moveMade(event);
+        }
     }
     
     private void nextTurn() {
@@ -91,10 +637,86 @@ public class ChessMatch {
         currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
     }
 
-    private Piece makeMove(Position source, Position target) {
-        ChessPiece p = (ChessPiece)board.removePiece(source);
+    private void recordPosition(boolean irreversible) {
+        if (positionCount == positionHistory.length) {
+            positionHistory = Arrays.copyOf(positionHistory, positionCount * 2);
+        }
+        if (irreversible) {
+            irreversibleIndex = positionCount;
+        }
+        positionHistory[positionCount++] = positionKeys.key(currentPlayer, pieceLists.kingSquare(Color.WHITE),
+                pieceLists.kingSquare(Color.BLACK), enPassantVulnerable);
+    }
+
+    private void testDraw() {
+        if (!check && !hasAnyLegalMove(currentPlayer)) {
+            drawReason = DrawReason.STALEMATE;
+        }
+        else if (halfMoveClock >= 100) {
+            drawReason = DrawReason.FIFTY_MOVE_RULE;
+        }
+        else if (testRepetition()) {
+            drawReason = DrawReason.THREEFOLD_REPETITION;
+        }
+        else if (testInsufficientMaterial()) {
+            drawReason = DrawReason.INSUFFICIENT_MATERIAL;
+        }
+        draw = drawReason != null;
+    }
+
+    // Só posições desde o último lance irreversível (captura ou lance de peão)
+    // podem se repetir, e apenas as com o mesmo jogador da vez.
+    private boolean testRepetition() {
+        long current = positionHistory[positionCount - 1];
+        int repetitions = 1;
+        for (int i = positionCount - 3; i >= irreversibleIndex; i -= 2) {
+            if (positionHistory[i] == current && ++repetitions == 3) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean testInsufficientMaterial() {
+        int minorPieces = 0;
+        int knights = 0;
+        boolean lightBishop = false;
+        boolean darkBishop = false;
+        for (Color color : new Color[] {Color.WHITE, Color.BLACK}) {
+            if (pieceLists.count(color, PieceLists.PAWN) > 0 || pieceLists.count(color, PieceLists.ROOK) > 0
+                    || pieceLists.count(color, PieceLists.QUEEN) > 0) {
+                return false;
+            }
+            knights += pieceLists.count(color, PieceLists.KNIGHT);
+            for (int index=0; index<pieceLists.count(color, PieceLists.BISHOP); index++) {
+                int square = pieceLists.square(color, PieceLists.BISHOP, index);
+                if ((square / board.getColumns() + square % board.getColumns()) % 2 == 0) {
+                    lightBishop = true;
+                }
+                else {
+                    darkBishop = true;
+                }
+                minorPieces++;
+            }
+        }
+        minorPieces += knights;
+        return minorPieces <= 1 || (knights == 0 && !(lightBishop && darkBishop));
+    }
+
+    private Piece makeMove(Position source, Position target, String promotionType) {
+        ChessPiece p = (ChessPiece)removePiece(source);
         p.increaseMoveCount();
-        Piece capturedPiece = board.removePiece(target);
+        Piece capturedPiece = removePiece(target);
+        
+        if (ply == moveRecords.length) {
+            growMoveRecords();
+        }
+        moveRecords[ply] = squareIndex(source) | squareIndex(target) << 10;
+        promotedPawns[ply] = null;
+        enPassantHistory[ply] = enPassantVulnerable;
+        clockHistory[ply] = halfMoveClock;
+        irreversibleHistory[ply] = irreversibleIndex;
+        stateHistory[ply] = (check ? CHECK : 0) | (checkMate ? CHECK_MATE : 0) | ((drawReason == null) ? 0 : (drawReason.ordinal() + 1) << 2);
         
         if (p instanceof Pawn && target.getColumn() != source.getColumn() && capturedPiece == null) {
             Position pawnCapturedPosition;
@@ -104,26 +726,35 @@ public class ChessMatch {
             else {
                 pawnCapturedPosition = new Position(target.getRow() - 1, target.getColumn());
             }
-            capturedPiece = board.removePiece(pawnCapturedPosition); 
+            capturedPiece = removePiece(pawnCapturedPosition); 
+            moveRecords[ply] |= EN_PASSANT;
+        }
+
+        if (p instanceof Pawn && isPromotionRow(p, target)) {
+            promotedPawns[ply] = p;
+            p = takePromotionPiece(p.getColor(), promotionType);
+            moveRecords[ply] |= ("BNRQ".indexOf(promotionType) + 1) << 20;
         }
+        capturedPieces[ply] = (ChessPiece)capturedPiece;
+        ply++;
 
-        board.placePiece(p, target);
+        placePiece(p, target);
         
         if (p instanceof King) {
 
             if (target.getColumn() == source.getColumn() + 2) {
                 Position sourceR = new Position(source.getRow(), source.getColumn() + 3); 
                 Position targetR = new Position(source.getRow(), source.getColumn() + 1); 
-                ChessPiece rook = (ChessPiece)board.removePiece(sourceR);
-                board.placePiece(rook, targetR);
+                ChessPiece rook = (ChessPiece)removePiece(sourceR);
+                placePiece(rook, targetR);
                 rook.increaseMoveCount();
             }
 
             if (target.getColumn() == source.getColumn() - 2) {
                 Position sourceR = new Position(source.getRow(), source.getColumn() - 4); 
                 Position targetR = new Position(source.getRow(), source.getColumn() - 1); 
-                ChessPiece rook = (ChessPiece)board.removePiece(sourceR);
-                board.placePiece(rook, targetR);
+                ChessPiece rook = (ChessPiece)removePiece(sourceR);
+                placePiece(rook, targetR);
                 rook.increaseMoveCount();
             }
         }
@@ -131,25 +762,31 @@ public class ChessMatch {
         return capturedPiece;
     }
     
-    private void undoMove(Position source, Position target, Piece capturedPiece) {
-        ChessPiece p = (ChessPiece)board.removePiece(target);
+    private void undoMove() {
+        ply--;
+        int move = moveRecords[ply];
+        Position source = squarePosition(move & 0x3FF);
+        Position target = squarePosition((move >> 10) & 0x3FF);
+        Piece capturedPiece = capturedPieces[ply];
+        capturedPieces[ply] = null;
+
+        ChessPiece p = (ChessPiece)removePiece(target);
+        if (promotedPawns[ply] != null) {
+            releasePromotionPiece(p);
+            p = promotedPawns[ply];
+            promotedPawns[ply] = null;
+        }
         p.decreaseMoveCount();
-        board.placePiece(p, source);
+        placePiece(p, source);
 
         if (capturedPiece != null) {
 
-            if (p instanceof Pawn && target.getColumn() != source.getColumn() && board.piece(target) == null) {
-                 Position pawnCapturedPosition;
-                 if (p.getColor() == Color.WHITE) {
-                     pawnCapturedPosition = new Position(3, target.getColumn());
-                 }
-                 else {
-                     pawnCapturedPosition = new Position(4, target.getColumn());
-                 }
-                 board.placePiece(capturedPiece, pawnCapturedPosition);
+            if ((move & EN_PASSANT) != 0) {
+                 Position pawnCapturedPosition = new Position(source.getRow(), target.getColumn());
+                 placePiece(capturedPiece, pawnCapturedPosition);
             }
             else {
-                board.placePiece(capturedPiece, target);
+                placePiece(capturedPiece, target);
             }
         }
         
@@ -158,120 +795,319 @@ public class ChessMatch {
             if (target.getColumn() == source.getColumn() + 2) {
                 Position sourceR = new Position(source.getRow(), source.getColumn() + 3); 
                 Position targetR = new Position(source.getRow(), source.getColumn() + 1); 
-                ChessPiece rook = (ChessPiece)board.removePiece(targetR);
-                board.placePiece(rook, sourceR);
+                ChessPiece rook = (ChessPiece)removePiece(targetR);
+                placePiece(rook, sourceR);
                 rook.decreaseMoveCount();
             }
 
             if (target.getColumn() == source.getColumn() - 2) {
                 Position sourceR = new Position(source.getRow(), source.getColumn() - 4); 
                 Position targetR = new Position(source.getRow(), source.getColumn() - 1); 
-                ChessPiece rook = (ChessPiece)board.removePiece(targetR);
-                board.placePiece(rook, sourceR);
+                ChessPiece rook = (ChessPiece)removePiece(targetR);
+                placePiece(rook, sourceR);
                 rook.decreaseMoveCount();
             }
         }
+        
+        enPassantVulnerable = enPassantHistory[ply];
+        enPassantHistory[ply] = null;
+        halfMoveClock = clockHistory[ply];
+        irreversibleIndex = irreversibleHistory[ply];
+        int state = stateHistory[ply];
+        check = (state & CHECK) != 0;
+        checkMate = (state & CHECK_MATE) != 0;
+        drawReason = ((state >> 2) == 0) ? null : DrawReason.values()[(state >> 2) - 1];
+        draw = drawReason != null;
     }
 
-    private Color opponent(Color color) {
-        return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    private Piece removePiece(Position position) {
+        Piece p = board.removePiece(position);
+        if (p != null) {
+            attackMap.pieceRemoved((ChessPiece)p, squareIndex(position));
+            pieceLists.pieceRemoved((ChessPiece)p, squareIndex(position));
+            positionKeys.pieceRemoved((ChessPiece)p, squareIndex(position));
+            if (boardListener != null) {
+                boardListener.pieceRemoved((ChessPiece)p, squareIndex(position));
+            }
+        }
+        return p;
     }
 
-    private List<Piece> piecesOnTheBoard(Color color) {
-        List<Piece> list = new ArrayList<>();
-        for (int i=0; i<board.getRows(); i++) {
-            for (int j=0; j<board.getColumns(); j++) {
-                Piece p = board.piece(i, j);
-                if (p != null && ((ChessPiece)p).getColor() == color) {
-                    list.add(p);
-                }
-            }
+    private void placePiece(Piece p, Position position) {
+        board.placePiece(p, position);
+        attackMap.piecePlaced((ChessPiece)p, squareIndex(position));
+        pieceLists.piecePlaced((ChessPiece)p, squareIndex(position));
+        positionKeys.piecePlaced((ChessPiece)p, squareIndex(position));
+        if (boardListener != null) {
+            boardListener.piecePlaced((ChessPiece)p, squareIndex(position));
         }
-        return list;
+    }
+
+    private void growMoveRecords() {
+        int capacity = moveRecords.length * 2;
+        moveRecords = Arrays.copyOf(moveRecords, capacity);
+        capturedPieces = Arrays.copyOf(capturedPieces, capacity);
+        promotedPawns = Arrays.copyOf(promotedPawns, capacity);
+        enPassantHistory = Arrays.copyOf(enPassantHistory, capacity);
+        clockHistory = Arrays.copyOf(clockHistory, capacity);
+        irreversibleHistory = Arrays.copyOf(irreversibleHistory, capacity);
+        stateHistory = Arrays.copyOf(stateHistory, capacity);
+    }
+
+    private int squareIndex(Position position) {
+        return position.getRow() * board.getColumns() + position.getColumn();
+    }
+
+    private Position squarePosition(int square) {
+        return new Position(square / board.getColumns(), square % board.getColumns());
+    }
+
+    private String promotionType(int move) {
+        int type = (move >> 20) & 7;
+        return (type == 0) ? "Q" : "BNRQ".substring(type - 1, type);
+    }
+
+    private boolean isPromotionRow(ChessPiece pawn, Position target) {
+        return target.getRow() == ((pawn.getColor() == Color.WHITE) ? 0 : board.getRows() - 1);
+    }
+
+    // As peças promovidas vêm de um estoque por cor e tipo, devolvidas em undoMove,
+    // para que as promoções testadas em testCheckMate não criem peças novas.
+    private ChessPiece takePromotionPiece(Color color, String type) {
+        List<ChessPiece> pool = promotionPool.get(promotionPoolIndex(color, type));
+        ChessPiece piece = pool.isEmpty() ? newPromotionPiece(color, type) : pool.remove(pool.size() - 1);
+        piece.increaseMoveCount();
+        return piece;
+    }
+
+    private void releasePromotionPiece(ChessPiece piece) {
+        piece.decreaseMoveCount();
+        promotionPool.get(promotionPoolIndex(piece.getColor(), piece.toString())).add(piece);
+    }
+
+    private int promotionPoolIndex(Color color, String type) {
+        return ((color == Color.WHITE) ? 0 : 4) + "BNRQ".indexOf(type);
+    }
+
+    private ChessPiece newPromotionPiece(Color color, String type) {
+        switch (type) {
+            case "B": return new Bishop(board, color);
+            case "N": return new Knight(board, color);
+            case "R": return new Rook(board, color);
+            default: return new Queen(board, color);
+        }
+    }
+
+    private Color opponent(Color color) {
+        return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
     }
 
     private ChessPiece King(Color color) {
-        for (int i=0; i<board.getRows(); i++) {
-            for (int j=0; j<board.getColumns(); j++) {
-                if (board.piece(i, j) != null && board.piece(i, j) instanceof King && ((ChessPiece)board.piece(i, j)).getColor() == color) {
-                    return (ChessPiece)board.piece(i, j);
-                }
-            }
+        int king = pieceLists.kingSquare(color);
+        if (king < 0) {
+            throw new IllegalStateException("Não existe o Rei " + color + " no tabuleiro!");
         }
-        throw new IllegalStateException("Não existe o Rei " + color + " no tabuleiro!");
+        return (ChessPiece)board.piece(king);
     }
 
     protected boolean testCheck(Color color) {
-        Position KingPosition = King(color).getChessPosition().toPosition();
-        Color opponent = opponent(color);
-
-        for (int i=0; i<board.getRows(); i++) {
-            for (int j=0; j<board.getColumns(); j++) {
-                Piece p = board.piece(i, j);
-                if (p != null && ((ChessPiece)p).getColor() == opponent) {
-                    boolean[][] mat = p.possibleMoves();
-                    if (mat[KingPosition.getRow()][KingPosition.getColumn()]) {
-                        return true;
-                    }
-                }
-            }
+        int king = pieceLists.kingSquare(color);
+        if (king < 0) {
+            King(color);
         }
-        return false;
+        return attackMap.isAttacked(king, opponent(color));
     }
     
     protected boolean testCheckMate(Color color) {
         if (!testCheck(color)) {
             return false; 
         }
-        
-        List<Piece> list = piecesOnTheBoard(color);
-        for (Piece p : list) {
+        return !hasAnyLegalMove(color);
+    }
+
+    // As tentativas mudam a ordem das listas de peças, então percorre uma cópia.
+    private boolean hasAnyLegalMove(Color color) {
+        int n = pieceLists.copySquares(color, pieceSquares);
+        for (int k=0; k<n; k++) {
+            Piece p = board.piece(pieceSquares[k]);
             boolean[][] mat = p.possibleMoves(); 
             
             for (int i=0; i<board.getRows(); i++) {
                 for (int j=0; j<board.getColumns(); j++) {
                     if (mat[i][j]) { 
-                        Position source = ((ChessPiece)p).getChessPosition().toPosition(); 
+                        Position source = p.getPosition(); 
                         Position target = new Position(i, j);
-                        Piece captured = makeMove(source, target); 
+                        makeMove(source, target, "Q"); 
                         boolean testCheck = testCheck(color); 
-                        undoMove(source, target, captured); 
+                        undoMove(); 
                         
                         if (!testCheck) {
-                            return false; 
+                            return true; 
                         }
                     }
                 }
             }
         }
-        return true; 
+        return false; 
     }
 
     private void validateSourcePosition(Position position) {
-        if (!board.thereIsAPiece(position)) {
-            throw new ChessException("Não há peça na posição de origem.");
+        MoveStatus status = sourceStatus(position);
+        if (status != MoveStatus.OK) {
+            throw new ChessException(status.getMessage());
+        }
+    }
+    
+    private MoveStatus sourceStatus(Position position) {
+        if (!board.positionExists(position)) {
+            return MoveStatus.OFF_BOARD;
         }
-        if (currentPlayer != ((ChessPiece)board.piece(position)).getColor()) {
-            throw new ChessException("A peça escolhida não é sua.");
+        ChessPiece p = (ChessPiece)board.piece(position);
+        if (p == null) {
+            return MoveStatus.NO_PIECE;
         }
-        if (!((ChessPiece)board.piece(position)).isThereAnyPossibleMove()) {
-            throw new ChessException("Não há movimentos possíveis para a peça selecionada.");
+        if (currentPlayer != p.getColor()) {
+            return MoveStatus.NOT_YOUR_PIECE;
         }
+        if (!p.isThereAnyPossibleMove()) {
+            return MoveStatus.NO_POSSIBLE_MOVES;
+        }
+        return MoveStatus.OK;
     }
     
-    private void validateTargetPosition(Position source, Position target) {
-
+    private MoveStatus targetStatus(Position source, Position target) {
+        if (!board.positionExists(target)) {
+            return MoveStatus.OFF_BOARD;
+        }
         ChessPiece sourcePiece = (ChessPiece)board.piece(source);
         if (!sourcePiece.possibleMove(target)) { 
-            throw new ChessException("A peça não pode se mover para a posição de destino.");
+            return MoveStatus.ILLEGAL_TARGET;
         }
-        if (board.thereIsAPiece(target) && sourcePiece.getColor() == ((ChessPiece)board.piece(target)).getColor()) {
-            throw new ChessException("Você não pode capturar sua própria peça.");
+        ChessPiece targetPiece = (ChessPiece)board.piece(target);
+        if (targetPiece != null && sourcePiece.getColor() == targetPiece.getColor()) {
+            return MoveStatus.OWN_PIECE;
         }
+        return MoveStatus.OK;
+    }
+    
+    private boolean isValidPromotionType(String type) {
+        return type != null && type.length() == 1 && "BNRQ".contains(type);
     }
     
     private void placeNewPiece(char column, int row, ChessPiece piece) {
-        board.placePiece(piece, new ChessPosition(column, row).toPosition());
+        placePiece(piece, new ChessPosition(column, row).toPosition(board.getRows()));
+    }
+
+    private void loadFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        String[] ranks = fields[0].split("/");
+        if (fields.length < 2 || ranks.length != board.getRows()) {
+            throw new ChessException("FEN inválida: " + fen);
+        }
+        for (int i=0; i<ranks.length; i++) {
+            int column = 0;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    column += c - '0';
+                    continue;
+                }
+                if (column >= board.getColumns()) {
+                    throw new ChessException("FEN inválida: " + fen);
+                }
+                ChessPiece piece = newPiece(c);
+                if (piece == null) {
+                    throw new ChessException("FEN inválida: " + fen);
+                }
+                placePiece(piece, new Position(i, column++));
+            }
+            if (column != board.getColumns()) {
+                throw new ChessException("FEN inválida: " + fen);
+            }
+        }
+        if (!fields[1].equals("w") && !fields[1].equals("b")) {
+            throw new ChessException("FEN inválida: " + fen);
+        }
+        currentPlayer = fields[1].equals("w") ? Color.WHITE : Color.BLACK;
+        // Só posições alcançáveis: um rei de cada cor, nenhum peão na primeira
+        // ou na última fileira e o lado que não joga fora de xeque.
+        for (Color color : new Color[] {Color.WHITE, Color.BLACK}) {
+            if (pieceLists.count(color, PieceLists.KING) != 1) {
+                throw new ChessException("FEN inválida: " + fen);
+            }
+        }
+        for (int j=0; j<board.getColumns(); j++) {
+            if (board.piece(0, j) instanceof Pawn || board.piece(board.getRows() - 1, j) instanceof Pawn) {
+                throw new ChessException("FEN inválida: " + fen);
+            }
+        }
+        if (testCheck(opponent(currentPlayer))) {
+            throw new ChessException("FEN inválida: " + fen);
+        }
+
+        String castling = (fields.length > 2) ? fields[2] : "-";
+        int lastRow = board.getRows() - 1;
+        for (int i=0; i<board.getRows(); i++) {
+            for (int j=0; j<board.getColumns(); j++) {
+                ChessPiece p = (ChessPiece)board.piece(i, j);
+                boolean unmoved;
+                if (p instanceof King) {
+                    unmoved = j == 4 && i == ((p.getColor() == Color.WHITE) ? lastRow : 0)
+                            && (castling.indexOf(castlingLetter(p.getColor(), 'K')) >= 0 || castling.indexOf(castlingLetter(p.getColor(), 'Q')) >= 0);
+                }
+                else if (p instanceof Rook) {
+                    char side = (j == 0) ? 'Q' : (j == board.getColumns() - 1) ? 'K' : ' ';
+                    unmoved = side != ' ' && i == ((p.getColor() == Color.WHITE) ? lastRow : 0) && castling.indexOf(castlingLetter(p.getColor(), side)) >= 0;
+                }
+                else if (p instanceof Pawn) {
+                    unmoved = i == ((p.getColor() == Color.WHITE) ? lastRow - 1 : 1);
+                }
+                else {
+                    unmoved = true;
+                }
+                if (p != null && !unmoved) {
+                    p.increaseMoveCount();
+                }
+            }
+        }
+
+        int fullMoves;
+        try {
+            if (fields.length > 3 && !fields[3].equals("-")) {
+                ChessPosition square = new ChessPosition(fields[3].charAt(0), Integer.parseInt(fields[3].substring(1)));
+                Position behind = square.toPosition(board.getRows());
+                Position pawn = new Position(behind.getRow() + ((currentPlayer == Color.WHITE) ? 1 : -1), behind.getColumn());
+                if (board.positionExists(pawn) && board.piece(pawn) instanceof Pawn && ((ChessPiece)board.piece(pawn)).getColor() != currentPlayer) {
+                    enPassantVulnerable = (ChessPiece)board.piece(pawn);
+                }
+            }
+            halfMoveClock = (fields.length > 4) ? Integer.parseInt(fields[4]) : 0;
+            fullMoves = (fields.length > 5) ? Integer.parseInt(fields[5]) : 1;
+        }
+        catch (NumberFormatException e) {
+            throw new ChessException("FEN inválida: " + fen);
+        }
+        if (halfMoveClock < 0 || fullMoves < 0) {
+            throw new ChessException("FEN inválida: " + fen);
+        }
+        // Muitas coleções de problemas trazem o número de lances 0; vale como 1.
+        turn = 2 * (Math.max(1, fullMoves) - 1) + ((currentPlayer == Color.WHITE) ? 1 : 2);
+    }
+
+    private static char castlingLetter(Color color, char side) {
+        return (color == Color.WHITE) ? side : Character.toLowerCase(side);
+    }
+
+    private ChessPiece newPiece(char letter) {
+        Color color = Character.isUpperCase(letter) ? Color.WHITE : Color.BLACK;
+        switch (Character.toUpperCase(letter)) {
+            case 'P': return new Pawn(board, color, this);
+            case 'N': return new Knight(board, color);
+            case 'B': return new Bishop(board, color);
+            case 'R': return new Rook(board, color);
+            case 'Q': return new Queen(board, color);
+            case 'K': return new King(board, color, this);
+            default: return null;
+        }
     }
 
     private void initialSetup() {
@@ -279,7 +1115,7 @@ public class ChessMatch {
         placeNewPiece('b', 1, new Knight(board, Color.WHITE));
         placeNewPiece('c', 1, new Bishop(board, Color.WHITE));
         placeNewPiece('d', 1, new Queen(board, Color.WHITE));
-        placeNewPiece('e', 1, new King(board, Color.WHITE));
+        placeNewPiece('e', 1, new King(board, Color.WHITE, this));
         placeNewPiece('f', 1, new Bishop(board, Color.WHITE));
         placeNewPiece('g', 1, new Knight(board, Color.WHITE));
         placeNewPiece('h', 1, new Rook(board, Color.WHITE));
@@ -291,7 +1127,7 @@ public class ChessMatch {
         placeNewPiece('b', 8, new Knight(board, Color.BLACK));
         placeNewPiece('c', 8, new Bishop(board, Color.BLACK));
         placeNewPiece('d', 8, new Queen(board, Color.BLACK));
-        placeNewPiece('e', 8, new King(board, Color.BLACK));
+        placeNewPiece('e', 8, new King(board, Color.BLACK, this));
         placeNewPiece('f', 8, new Bishop(board, Color.BLACK));
         placeNewPiece('g', 8, new Knight(board, Color.BLACK));
         placeNewPiece('h', 8, new Rook(board, Color.BLACK));
@@ -1,6 +1,7 @@
 package chess;
 
 import board.Board;
+import board.MoveTables;
 import board.Piece;
 import board.Position;
 
@@ -35,9 +36,11 @@ public abstract class ChessPiece extends Piece {
     }
 
     public ChessPosition getChessPosition() {
-        return ChessPosition.fromPosition(position);
+        return ChessPosition.fromPosition(position, getBoard().getRows());
     }
 
+    public abstract int getValue();
+
     @Override
     public abstract boolean[][] possibleMoves(); 
 
@@ -62,4 +65,33 @@ public abstract class ChessPiece extends Piece {
         ChessPiece p = (ChessPiece)getBoard().piece(position);
         return p != null && p.getColor() != color;
     }
+
+    protected int getSquare() {
+        return getBoard().getMoveTables().square(position.getRow(), position.getColumn());
+    }
+
+    // Marca as casas de um raio pré-calculado até a primeira peça,
+    // incluindo-a se for do adversário.
+    protected void markRay(boolean[][] mat, int[] ray) {
+        MoveTables tables = getBoard().getMoveTables();
+        for (int square : ray) {
+            ChessPiece p = (ChessPiece)getBoard().piece(square);
+            if (p == null || p.getColor() != color) {
+                mat[tables.row(square)][tables.column(square)] = true;
+            }
+            if (p != null) {
+                return;
+            }
+        }
+    }
+
+    protected void markLeaps(boolean[][] mat, int[] targets) {
+        MoveTables tables = getBoard().getMoveTables();
+        for (int square : targets) {
+            ChessPiece p = (ChessPiece)getBoard().piece(square);
+            if (p == null || p.getColor() != color) {
+                mat[tables.row(square)][tables.column(square)] = true;
+            }
+        }
+    }
 }
\ No newline at end of file
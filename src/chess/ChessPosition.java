@@ -4,12 +4,14 @@ import board.Position;
 
 public class ChessPosition {
 
+    public static final int MAX_ROWS = 26;
+
     private char column; 
     private int row; 
 
     public ChessPosition(char column, int row) {
-        if (column < 'a' || column > 'h' || row < 1 || row > 8) {
-            throw new ChessException("Erro ao instanciar ChessPosition. Valores válidos são de a1 a h8.");
+        if (column < 'a' || column > 'z' || row < 1 || row > MAX_ROWS) {
+            throw new ChessException("Erro ao instanciar ChessPosition. Valores válidos são de a1 a z" + MAX_ROWS + ".");
         }
         this.column = column;
         this.row = row;
@@ -25,12 +27,22 @@ public class ChessPosition {
     
     public Position toPosition() {
 
-        return new Position(8 - row, column - 'a');
+        return toPosition(8);
+    }
+
+    public Position toPosition(int rows) {
+
+        return new Position(rows - row, column - 'a');
     }
 
     public static ChessPosition fromPosition(Position position) {
 
-        return new ChessPosition((char)('a' + position.getColumn()), 8 - position.getRow());
+        return fromPosition(position, 8);
+    }
+
+    public static ChessPosition fromPosition(Position position, int rows) {
+
+        return new ChessPosition((char)('a' + position.getColumn()), rows - position.getRow());
     }
 
     @Override
@@ -0,0 +1,351 @@
+package chess;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+// Partida compartilhada entre uma thread que joga e várias que só leem
+// (espectadores, antifraude, interface). Os lances são feitos no ChessMatch fora
+// de qualquer trava de leitura, inclusive as tentativas de testCheckMate; só no
+// fim o escritor copia o estado resultante para os campos abaixo, numa escrita
+// curta do StampedLock. Os leitores leem esses campos com leitura otimista e
+// só entram na trava de leitura se a cópia tiver mudado no meio, então nunca
+// atrasam o escritor nem veem posições intermediárias. As peças são publicadas
+// como PieceDescriptor (tipo e cor), porque as ChessPiece do tabuleiro continuam
+// sendo alteradas pelo escritor.
+public class ConcurrentChessMatch {
+
+    // Estado coerente de um mesmo instante da partida.
+    public static class View {
+
+        private final long version;
+        private final PieceDescriptor[][] pieces;
+        private final int turn;
+        private final Color currentPlayer;
+        private final boolean check;
+        private final boolean checkMate;
+        private final DrawReason drawReason;
+        private final String fen;
+
+        private View(long version, PieceDescriptor[][] pieces, int turn, Color currentPlayer, boolean check, boolean checkMate,
+                DrawReason drawReason, String fen) {
+            this.version = version;
+            this.pieces = pieces;
+            this.turn = turn;
+            this.currentPlayer = currentPlayer;
+            this.check = check;
+            this.checkMate = checkMate;
+            this.drawReason = drawReason;
+            this.fen = fen;
+        }
+
+        public long getVersion() { return version; }
+        public PieceDescriptor[][] getPieces() { return pieces; }
+        public int getTurn() { return turn; }
+        public Color getCurrentPlayer() { return currentPlayer; }
+        public boolean getCheck() { return check; }
+        public boolean getCheckMate() { return checkMate; }
+        public boolean getDraw() { return drawReason != null; }
+        public DrawReason getDrawReason() { return drawReason; }
+        public String getFen() { return fen; }
+    }
+
+    private final ChessMatch chessMatch;
+    private final Object writer = new Object();
+    private final StampedLock lock = new StampedLock();
+    private final int rows;
+    private final int columns;
+
+    // Cópia publicada, protegida por lock.
+    private final PieceDescriptor[] pieces;
+    private long version;
+    private int turn;
+    private Color currentPlayer;
+    private boolean check;
+    private boolean checkMate;
+    private DrawReason drawReason;
+    private String fen;
+
+    // Estado de trabalho do escritor, para não alocar a cada lance.
+    private final ChessPiece[][] scratch;
+    private final PieceDescriptor[] descriptors;
+
+    public ConcurrentChessMatch() {
+        this(new ChessMatch());
+    }
+
+    public ConcurrentChessMatch(String fen) {
+        this(new ChessMatch(fen));
+    }
+
+    // A partida passa a ser desta classe: mexer nela diretamente depois disso
+    // fura a publicação.
+    public ConcurrentChessMatch(ChessMatch chessMatch) {
+        this.chessMatch = chessMatch;
+        this.rows = chessMatch.getRows();
+        this.columns = chessMatch.getColumns();
+        this.pieces = new PieceDescriptor[rows * columns];
+        this.scratch = new ChessPiece[rows][columns];
+        this.descriptors = new PieceDescriptor[rows * columns];
+        synchronized (writer) {
+            publish();
+        }
+    }
+
+    public int getRows() { return rows; }
+    public int getColumns() { return columns; }
+
+    public long getVersion() {
+        long stamp = lock.tryOptimisticRead();
+        long result = version;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = version;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public int getTurn() {
+        long stamp = lock.tryOptimisticRead();
+        int result = turn;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = turn;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public Color getCurrentPlayer() {
+        long stamp = lock.tryOptimisticRead();
+        Color result = currentPlayer;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = currentPlayer;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public boolean getCheck() {
+        long stamp = lock.tryOptimisticRead();
+        boolean result = check;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = check;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public boolean getCheckMate() {
+        long stamp = lock.tryOptimisticRead();
+        boolean result = checkMate;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = checkMate;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public boolean getDraw() {
+        return getDrawReason() != null;
+    }
+
+    public DrawReason getDrawReason() {
+        long stamp = lock.tryOptimisticRead();
+        DrawReason result = drawReason;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = drawReason;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public String getFen() {
+        long stamp = lock.tryOptimisticRead();
+        String result = fen;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = fen;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public PieceDescriptor[][] getPieces() {
+        PieceDescriptor[][] mat = new PieceDescriptor[rows][columns];
+        copyPieces(mat);
+        return mat;
+    }
+
+    // Devolve a versão da posição copiada.
+    public long copyPieces(PieceDescriptor[][] mat) {
+        long stamp = lock.tryOptimisticRead();
+        long result = copyPublished(mat);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = copyPublished(mat);
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public View getView() {
+        PieceDescriptor[][] mat = new PieceDescriptor[rows][columns];
+        long stamp = lock.tryOptimisticRead();
+        View view = readView(mat);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                view = readView(mat);
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return view;
+    }
+
+    private long copyPublished(PieceDescriptor[][] mat) {
+        for (int i=0; i<rows; i++) {
+            System.arraycopy(pieces, i * columns, mat[i], 0, columns);
+        }
+        return version;
+    }
+
+    private View readView(PieceDescriptor[][] mat) {
+        return new View(copyPublished(mat), mat, turn, currentPlayer, check, checkMate, drawReason, fen);
+    }
+
+    // Lances, sempre pela mesma trava de escritor; cada um que muda a partida
+    // publica uma nova versão.
+    public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition, String promotionType) {
+        synchronized (writer) {
+            try {
+                return chessMatch.performChessMove(sourcePosition, targetPosition, promotionType);
+            }
+            finally {
+                publish();
+            }
+        }
+    }
+
+    public MoveStatus tryPerformChessMove(ChessPosition sourcePosition, ChessPosition targetPosition, String promotionType) {
+        synchronized (writer) {
+            MoveStatus status = chessMatch.tryPerformChessMove(sourcePosition, targetPosition, promotionType);
+            if (status == MoveStatus.OK) {
+                publish();
+            }
+            return status;
+        }
+    }
+
+    public MoveStatus tryPerformChessMove(int move) {
+        synchronized (writer) {
+            MoveStatus status = chessMatch.tryPerformChessMove(move);
+            if (status == MoveStatus.OK) {
+                publish();
+            }
+            return status;
+        }
+    }
+
+    public void undo() {
+        synchronized (writer) {
+            chessMatch.undo();
+            publish();
+        }
+    }
+
+    public ChessPiece redo() {
+        synchronized (writer) {
+            try {
+                return chessMatch.redo();
+            }
+            finally {
+                publish();
+            }
+        }
+    }
+
+    // Qualquer outra operação sobre a partida, na vez do escritor; o que ela
+    // mudar é publicado ao fim. Serve também a consultas que percorrem o
+    // tabuleiro vivo, como possibleMoves, ao preço de esperar o lance em curso.
+    public <T> T write(Function<ChessMatch, T> operation) {
+        synchronized (writer) {
+            try {
+                return operation.apply(chessMatch);
+            }
+            finally {
+                publish();
+            }
+        }
+    }
+
+    public boolean[][] possibleMoves(ChessPosition sourcePosition) {
+        synchronized (writer) {
+            return chessMatch.possibleMoves(sourcePosition);
+        }
+    }
+
+    // Chamado com a trava de escritor: monta fora da trava de leitura tudo o que
+    // custa e só copia referências dentro dela.
+    private void publish() {
+        chessMatch.copyPieces(scratch);
+        for (int i=0; i<rows; i++) {
+            for (int j=0; j<columns; j++) {
+                descriptors[i * columns + j] = PieceDescriptor.of(scratch[i][j]);
+            }
+        }
+        String updatedFen = chessMatch.getFen();
+        long stamp = lock.writeLock();
+        try {
+            System.arraycopy(descriptors, 0, pieces, 0, pieces.length);
+            version++;
+            turn = chessMatch.getTurn();
+            currentPlayer = chessMatch.getCurrentPlayer();
+            check = chessMatch.getCheck();
+            checkMate = chessMatch.getCheckMate();
+            drawReason = chessMatch.getDraw() ? chessMatch.getDrawReason() : null;
+            fen = updatedFen;
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package chess;
+
+public enum DrawReason {
+    STALEMATE,
+    THREEFOLD_REPETITION,
+    FIFTY_MOVE_RULE,
+    INSUFFICIENT_MATERIAL;
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package chess;
+
+public class MoveEvent {
+
+    public static final int CAPTURE = 1;
+    public static final int CHECK = 2;
+    public static final int CHECK_MATE = 4;
+    public static final int DRAW = 8;
+    public static final int PROMOTION = 16;
+    public static final int UNDO = 32;
+
+    private final int ply;
+    private final ChessPosition source;
+    private final ChessPosition target;
+    private final String piece;
+    private final String capturedPiece;
+    private final Color color;
+    private final int flags;
+
+    public MoveEvent(int ply, ChessPosition source, ChessPosition target, String piece, String capturedPiece, Color color, int flags) {
+        this.ply = ply;
+        this.source = source;
+        this.target = target;
+        this.piece = piece;
+        this.capturedPiece = capturedPiece;
+        this.color = color;
+        this.flags = flags;
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    public ChessPosition getSource() {
+        return source;
+    }
+
+    public ChessPosition getTarget() {
+        return target;
+    }
+
+    public String getPiece() {
+        return piece;
+    }
+
+    public String getCapturedPiece() {
+        return capturedPiece;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public boolean is(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    @Override
+    public String toString() {
+        return "" + ply + ": " + source + (is(CAPTURE) ? "x" : "-") + target + (is(CHECK_MATE) ? "#" : is(CHECK) ? "+" : "") + (is(UNDO) ? " (desfeito)" : "");
+    }
+}
\ No newline at end of file
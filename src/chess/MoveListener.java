@@ -0,0 +1,6 @@
+package chess;
+
+public interface MoveListener {
+
+    void moveMade(MoveEvent event);
+}
\ No newline at end of file
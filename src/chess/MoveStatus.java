@@ -0,0 +1,23 @@
+package chess;
+
+public enum MoveStatus {
+    OK("Lance realizado."),
+    OFF_BOARD("Posição não está no tabuleiro."),
+    NO_PIECE("Não há peça na posição de origem."),
+    NOT_YOUR_PIECE("A peça escolhida não é sua."),
+    NO_POSSIBLE_MOVES("Não há movimentos possíveis para a peça selecionada."),
+    ILLEGAL_TARGET("A peça não pode se mover para a posição de destino."),
+    OWN_PIECE("Você não pode capturar sua própria peça."),
+    INVALID_PROMOTION("Tipo inválido para promoção. Valores válidos são B, N, R ou Q."),
+    SELF_CHECK("Você não pode se colocar em xeque!");
+
+    private final String message;
+
+    MoveStatus(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package chess;
+
+// Tipo e cor de uma peça, sem o resto do estado de ChessPiece (posição, número
+// de lances), que continua mudando na thread que joga. É o que ConcurrentChessMatch
+// publica para os leitores. Há uma única instância por tipo e cor.
+public final class PieceDescriptor {
+
+    private static final String TYPES = "PNBRQK";
+    private static final PieceDescriptor[] DESCRIPTORS = new PieceDescriptor[2 * TYPES.length()];
+
+    static {
+        for (int i=0; i<TYPES.length(); i++) {
+            DESCRIPTORS[i] = new PieceDescriptor(TYPES.charAt(i), Color.WHITE);
+            DESCRIPTORS[TYPES.length() + i] = new PieceDescriptor(TYPES.charAt(i), Color.BLACK);
+        }
+    }
+
+    private final char type;
+    private final Color color;
+
+    private PieceDescriptor(char type, Color color) {
+        this.type = type;
+        this.color = color;
+    }
+
+    static PieceDescriptor of(ChessPiece piece) {
+        if (piece == null) {
+            return null;
+        }
+        return DESCRIPTORS[((piece.getColor() == Color.WHITE) ? 0 : TYPES.length()) + PieceLists.type(piece)];
+    }
+
+    // A letra de toString de ChessPiece: P, N, B, R, Q ou K.
+    public char getType() {
+        return type;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    // A letra da peça na FEN: maiúscula para as brancas, minúscula para as pretas.
+    public char getFenSymbol() {
+        return (color == Color.WHITE) ? type : Character.toLowerCase(type);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(type);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package chess;
+
+import chess.pieces.Bishop;
+import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
+import chess.pieces.Queen;
+
+// Casas das peças de cada cor e tipo, mantidas por ChessMatch a cada peça posta
+// ou tirada do tabuleiro, para percorrer as peças de um lado sem varrer o
+// tabuleiro. Cada casa ocupada guarda sua posição na lista, então tirar uma peça
+// é trocar pela última da lista. A ordem de uma lista muda quando se joga um
+// lance: quem joga lances enquanto percorre uma lista deve copiá-la antes.
+class PieceLists {
+
+    static final int PAWN = 0;
+    static final int KNIGHT = 1;
+    static final int BISHOP = 2;
+    static final int ROOK = 3;
+    static final int QUEEN = 4;
+    static final int KING = 5;
+    static final int TYPES = 6;
+
+    private final int[][] squares;
+    private final int[] counts = new int[2 * TYPES];
+    private final int[] slots;
+
+    PieceLists(int squareCount) {
+        squares = new int[2 * TYPES][squareCount];
+        slots = new int[squareCount];
+    }
+
+    int count(Color color, int type) {
+        return counts[list(color, type)];
+    }
+
+    int square(Color color, int type, int index) {
+        return squares[list(color, type)][index];
+    }
+
+    // Copia as casas das peças de color em out, do peão ao rei; devolve quantas.
+    int copySquares(Color color, int[] out) {
+        int n = 0;
+        for (int type=PAWN; type<TYPES; type++) {
+            int list = list(color, type);
+            System.arraycopy(squares[list], 0, out, n, counts[list]);
+            n += counts[list];
+        }
+        return n;
+    }
+
+    // Copia as casas das peças de color e type em out; devolve quantas.
+    int copySquares(Color color, int type, int[] out) {
+        int list = list(color, type);
+        System.arraycopy(squares[list], 0, out, 0, counts[list]);
+        return counts[list];
+    }
+
+    // Casa do rei de color, ou -1 se não houver.
+    int kingSquare(Color color) {
+        int list = list(color, KING);
+        return (counts[list] == 0) ? -1 : squares[list][0];
+    }
+
+    void piecePlaced(ChessPiece piece, int square) {
+        int list = list(piece.getColor(), type(piece));
+        slots[square] = counts[list];
+        squares[list][counts[list]++] = square;
+    }
+
+    void pieceRemoved(ChessPiece piece, int square) {
+        int list = list(piece.getColor(), type(piece));
+        int last = squares[list][--counts[list]];
+        squares[list][slots[square]] = last;
+        slots[last] = slots[square];
+    }
+
+    static int type(ChessPiece piece) {
+        if (piece instanceof Pawn) {
+            return PAWN;
+        }
+        if (piece instanceof Knight) {
+            return KNIGHT;
+        }
+        if (piece instanceof Bishop) {
+            return BISHOP;
+        }
+        if (piece instanceof Queen) {
+            return QUEEN;
+        }
+        if (piece instanceof King) {
+            return KING;
+        }
+        return ROOK;
+    }
+
+    private static int list(Color color, int type) {
+        return ((color == Color.WHITE) ? 0 : TYPES) + type;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+import board.Board;
+import chess.pieces.Pawn;
+import chess.pieces.Rook;
+
+// Chaves Zobrist das posições, para detectar repetições. A parte das peças é
+// mantida por ChessMatch a cada peça posta ou tirada do tabuleiro; roque e en
+// passant entram só quando a chave é pedida, olhando as casas dos reis e do
+// peão que acabou de avançar duas casas.
+class PositionKeys {
+
+    private static final int KINDS = 16;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final Board board;
+    private final long[] pieceKeys;
+    private final long blackToMove;
+    private final long[] castlingKeys;
+    private final long[] enPassantKeys;
+    private long pieces;
+
+    PositionKeys(Board board) {
+        this.board = board;
+        SplittableRandom random = new SplittableRandom(SEED);
+        pieceKeys = new long[KINDS * board.getRows() * board.getColumns()];
+        for (int i=0; i<pieceKeys.length; i++) {
+            pieceKeys[i] = random.nextLong();
+        }
+        blackToMove = random.nextLong();
+        castlingKeys = new long[4];
+        for (int i=0; i<castlingKeys.length; i++) {
+            castlingKeys[i] = random.nextLong();
+        }
+        enPassantKeys = new long[board.getColumns()];
+        for (int i=0; i<enPassantKeys.length; i++) {
+            enPassantKeys[i] = random.nextLong();
+        }
+    }
+
+    void piecePlaced(ChessPiece piece, int square) {
+        pieces ^= pieceKeys[kind(piece) * board.getRows() * board.getColumns() + square];
+    }
+
+    void pieceRemoved(ChessPiece piece, int square) {
+        pieces ^= pieceKeys[kind(piece) * board.getRows() * board.getColumns() + square];
+    }
+
+    // Os reis vêm das listas de peças (-1 se não houver). A coluna do en passant
+    // só entra se houver um peão de toMove ao lado do que avançou, isto é, se a
+    // captura existir: sem ela a posição é a mesma das seguintes com as mesmas peças.
+    long key(Color toMove, int whiteKing, int blackKing, ChessPiece enPassantVulnerable) {
+        long key = pieces ^ ((toMove == Color.BLACK) ? blackToMove : 0L);
+        key ^= castlingKey(whiteKing, 0) ^ castlingKey(blackKing, 2);
+        if (enPassantVulnerable != null) {
+            int row = enPassantVulnerable.getPosition().getRow();
+            int column = enPassantVulnerable.getPosition().getColumn();
+            if (isPawn(row, column - 1, toMove) || isPawn(row, column + 1, toMove)) {
+                key ^= enPassantKeys[column];
+            }
+        }
+        return key;
+    }
+
+    private boolean isPawn(int row, int column, Color color) {
+        if (column < 0 || column >= board.getColumns()) {
+            return false;
+        }
+        ChessPiece p = (ChessPiece)board.piece(row, column);
+        return p instanceof Pawn && p.getColor() == color;
+    }
+
+    // O direito de roque entra na chave pelos mesmos critérios de King.possibleMoves
+    // (rei e torre ainda sem lances), e não pelo simples fato de uma peça não ter
+    // se movido; assim posições iguais lidas de FEN ou jogadas têm a mesma chave.
+    private long castlingKey(int square, int index) {
+        ChessPiece king = (square < 0) ? null : (ChessPiece)board.piece(square);
+        if (king == null || !king.isFirstMove()) {
+            return 0L;
+        }
+        long key = 0L;
+        int row = king.getPosition().getRow();
+        int column = king.getPosition().getColumn();
+        if (isUnmovedRook(row, column + 3, king.getColor())) {
+            key ^= castlingKeys[index];
+        }
+        if (isUnmovedRook(row, column - 4, king.getColor())) {
+            key ^= castlingKeys[index + 1];
+        }
+        return key;
+    }
+
+    private boolean isUnmovedRook(int row, int column, Color color) {
+        if (column < 0 || column >= board.getColumns()) {
+            return false;
+        }
+        ChessPiece p = (ChessPiece)board.piece(row, column);
+        return p instanceof Rook && p.getColor() == color && p.isFirstMove();
+    }
+
+    private static int kind(ChessPiece p) {
+        return PieceLists.type(p) + ((p.getColor() == Color.WHITE) ? 0 : 8);
+    }
+}
\ No newline at end of file
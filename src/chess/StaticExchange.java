@@ -0,0 +1,128 @@
+package chess;
+
+import board.Board;
+import board.MoveTables;
+import chess.pieces.Bishop;
+import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
+import chess.pieces.Queen;
+import chess.pieces.Rook;
+import java.util.Arrays;
+
+class StaticExchange {
+
+    private final Board board;
+    private final MoveTables tables;
+
+    // Casas cujas peças já participaram da troca; marcadas com o número da
+    // chamada atual para não precisar limpar o vetor a cada avaliação.
+    private final int[] removed;
+    private int stamp;
+    private final int[] gain = new int[64];
+
+    StaticExchange(Board board) {
+        this.board = board;
+        this.tables = board.getMoveTables();
+        this.removed = new int[board.getRows() * board.getColumns()];
+    }
+
+    // Saldo material, do ponto de vista de quem joga, da sequência de capturas
+    // em target iniciada pela peça em source, com cada lado sempre recapturando
+    // com a peça de menor valor e podendo parar quando não lhe for vantajoso.
+    int evaluate(int source, int target) {
+        if (++stamp == 0) {
+            Arrays.fill(removed, 0);
+            stamp = 1;
+        }
+        ChessPiece attacker = (ChessPiece)board.piece(source);
+        ChessPiece victim = (ChessPiece)board.piece(target);
+        Color side = attacker.getColor();
+
+        int depth = 0;
+        gain[0] = (victim == null) ? 0 : victim.getValue();
+        int attackerSquare = source;
+        while (true) {
+            depth++;
+            gain[depth] = attacker.getValue() - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0 || depth + 1 == gain.length) {
+                break;
+            }
+            removed[attackerSquare] = stamp;
+            side = (side == Color.WHITE) ? Color.BLACK : Color.WHITE;
+            attackerSquare = leastValuableAttacker(target, side);
+            if (attackerSquare < 0) {
+                break;
+            }
+            attacker = (ChessPiece)board.piece(attackerSquare);
+        }
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    private int leastValuableAttacker(int target, Color color) {
+        int row = tables.row(target);
+        int column = tables.column(target);
+        int pawnRow = (color == Color.WHITE) ? row + 1 : row - 1;
+        if (pawnRow >= 0 && pawnRow < board.getRows()) {
+            for (int c = column - 1; c <= column + 1; c += 2) {
+                if (c >= 0 && c < board.getColumns()) {
+                    int square = tables.square(pawnRow, c);
+                    if (isAttacker(square, color, Pawn.class)) {
+                        return square;
+                    }
+                }
+            }
+        }
+        for (int square : tables.knightMoves(target)) {
+            if (isAttacker(square, color, Knight.class)) {
+                return square;
+            }
+        }
+        int best = -1;
+        int bestValue = Integer.MAX_VALUE;
+        for (int direction = MoveTables.NORTH; direction <= MoveTables.SOUTH_EAST; direction++) {
+            int square = firstPiece(tables.ray(target, direction));
+            if (square < 0) {
+                continue;
+            }
+            ChessPiece p = (ChessPiece)board.piece(square);
+            boolean diagonal = direction >= MoveTables.NORTH_WEST;
+            boolean slides = p instanceof Queen || (diagonal ? p instanceof Bishop : p instanceof Rook);
+            if (p.getColor() == color && slides && p.getValue() < bestValue) {
+                best = square;
+                bestValue = p.getValue();
+            }
+        }
+        if (best >= 0) {
+            return best;
+        }
+        for (int square : tables.kingMoves(target)) {
+            if (isAttacker(square, color, King.class)) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    // Primeira peça ao longo do raio ignorando as que já trocaram, o que revela
+    // automaticamente as peças de longo alcance que estavam atrás delas (raio-x).
+    private int firstPiece(int[] ray) {
+        for (int square : ray) {
+            if (removed[square] != stamp && board.piece(square) != null) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isAttacker(int square, Color color, Class<? extends ChessPiece> type) {
+        if (removed[square] == stamp) {
+            return false;
+        }
+        ChessPiece p = (ChessPiece)board.piece(square);
+        return p != null && p.getColor() == color && p.getClass() == type;
+    }
+}
\ No newline at end of file
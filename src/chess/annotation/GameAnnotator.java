@@ -0,0 +1,265 @@
+package chess.annotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import chess.ChessMatch;
+import chess.MoveStatus;
+import chess.archive.GameArchive;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+
+// Anota partidas terminadas em PGN: a avaliação depois de cada lance e, nos
+// lances que perdem avaliação, ?!, ? ou ?? com o melhor lance, além dos mates
+// que o jogador tinha e deixou escapar. As partidas são lidas no formato de
+// GameArchive. Cada posição de cada partida é uma tarefa separada no pool, com
+// seu próprio ChessMatch e Search e o mesmo limite de nós, então as posições de
+// uma partida longa se espalham por todas as threads; as partidas são escritas
+// na ordem de entrada, com no máximo algumas por thread esperando a vez.
+public class GameAnnotator {
+
+    // Avaliação de uma posição, do ponto de vista de quem joga nela.
+    private static class Evaluation {
+
+        private final SearchResult result;
+        private final String bestMove;
+
+        private Evaluation(SearchResult result, String bestMove) {
+            this.result = result;
+            this.bestMove = bestMove;
+        }
+    }
+
+    private static class Game {
+
+        private final int result;
+        private final String[] moves;
+        private final String[] sans;
+        private final List<Future<Evaluation>> evaluations = new ArrayList<>();
+        private String illegalMove;
+
+        private Game(int result, String[] moves) {
+            this.result = result;
+            this.moves = moves;
+            this.sans = new String[moves.length];
+        }
+    }
+
+    private static final int MATE_CP = 1000;
+    private static final int LINE_LENGTH = 80;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long nodes = 20000;
+    private int inaccuracy = 50;
+    private int mistake = 100;
+    private int blunder = 300;
+
+    private long games;
+    private long plies;
+    private long inaccuracies;
+    private long mistakes;
+    private long blunders;
+    private long missedMates;
+    private long illegalGames;
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    // Limite de nós da busca em cada posição.
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    // Perdas mínimas, em centipeões, para ?!, ? e ??.
+    public void setThresholds(int inaccuracy, int mistake, int blunder) {
+        this.inaccuracy = inaccuracy;
+        this.mistake = mistake;
+        this.blunder = blunder;
+    }
+
+    public long getGames() { return games; }
+    public long getPlies() { return plies; }
+    public long getInaccuracies() { return inaccuracies; }
+    public long getMistakes() { return mistakes; }
+    public long getBlunders() { return blunders; }
+    public long getMissedMates() { return missedMates; }
+    public long getIllegalGames() { return illegalGames; }
+
+    public void annotate(BufferedReader in, Writer out) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Game> pending = new ArrayDeque<>();
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].isEmpty() || tokens[0].startsWith("#") || GameArchive.parseResult(tokens[0]) < 0) {
+                    continue;
+                }
+                String[] moves = new String[tokens.length - 1];
+                System.arraycopy(tokens, 1, moves, 0, moves.length);
+                pending.add(submit(executor, new Game(GameArchive.parseResult(tokens[0]), moves)));
+                while (pending.size() > 4 * threads) {
+                    write(pending.poll(), out);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), out);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Refaz a partida para obter a notação algébrica e a FEN antes de cada lance,
+    // e põe a análise de cada posição (inclusive a final) no pool.
+    private Game submit(ExecutorService executor, Game game) {
+        ChessMatch chessMatch = new ChessMatch();
+        for (int n=0; n<game.moves.length; n++) {
+            String fen = chessMatch.getFen();
+            game.evaluations.add(executor.submit(() -> evaluate(fen)));
+            int move = chessMatch.parseMove(game.moves[n]);
+            if (move == 0) {
+                game.illegalMove = game.moves[n];
+                break;
+            }
+            String san = chessMatch.moveToSan(move);
+            if (chessMatch.tryPerformChessMove(move) != MoveStatus.OK) {
+                game.illegalMove = game.moves[n];
+                break;
+            }
+            game.sans[n] = san;
+        }
+        if (game.illegalMove == null) {
+            String fen = chessMatch.getFen();
+            game.evaluations.add(executor.submit(() -> evaluate(fen)));
+        }
+        return game;
+    }
+
+    private Evaluation evaluate(String fen) {
+        ChessMatch chessMatch = new ChessMatch(fen);
+        SearchLimits limits = new SearchLimits();
+        limits.setNodes(nodes);
+        SearchResult result = new Search(chessMatch).search(limits, null);
+        int move = result.getBestMove();
+        return new Evaluation(result, (move == 0) ? null : chessMatch.moveToSan(move));
+    }
+
+    private void write(Game game, Writer out) throws IOException {
+        Evaluation[] evaluations = new Evaluation[game.moves.length + 1];
+        try {
+            for (int i=0; i<game.evaluations.size(); i++) {
+                evaluations[i] = game.evaluations.get(i).get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Anotação interrompida", e);
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Falha ao analisar a partida " + (games + 1), e.getCause());
+        }
+
+        games++;
+        String result = GameArchive.resultToString(game.result);
+        out.write("[Event \"?\"]\n[Site \"?\"]\n[Date \"????.??.??\"]\n[Round \"" + games + "\"]\n[White \"?\"]\n[Black \"?\"]\n");
+        out.write("[Result \"" + result + "\"]\n[Annotator \"ChessSystemJava\"]\n\n");
+
+        StringBuilder line = new StringBuilder();
+        boolean numberNeeded = true;
+        for (int i=0; i<game.moves.length && game.sans[i] != null; i++) {
+            plies++;
+            boolean white = i % 2 == 0;
+            if (white || numberNeeded) {
+                append(out, line, (i / 2 + 1) + (white ? "." : "..."));
+            }
+            Evaluation before = evaluations[i];
+            Evaluation after = evaluations[i + 1];
+            StringBuilder comment = new StringBuilder();
+            String nag = "";
+            if (after != null && before.bestMove != null && !before.bestMove.equals(game.sans[i])) {
+                int loss = centipawns(before.result) + centipawns(after.result);
+                boolean missedMate = before.result.isMate() && before.result.getScore() > 0
+                        && !(after.result.isMate() && after.result.getScore() < 0);
+                if (loss >= blunder) {
+                    nag = "??";
+                    blunders++;
+                }
+                else if (loss >= mistake) {
+                    nag = "?";
+                    mistakes++;
+                }
+                else if (loss >= inaccuracy) {
+                    nag = "?!";
+                    inaccuracies++;
+                }
+                if (missedMate) {
+                    missedMates++;
+                    comment.append("Perdeu o mate em ").append(before.result.getMateIn()).append(". ");
+                }
+                if (missedMate || !nag.isEmpty()) {
+                    comment.append('(').append(evaluation(before.result, white)).append(" -> ")
+                            .append(evaluation(after.result, !white)).append(") Melhor era ").append(before.bestMove).append(". ");
+                }
+            }
+            append(out, line, game.sans[i] + nag);
+            if (after != null && (after.bestMove != null || !after.result.isMate())) {
+                comment.append("[%eval ").append(evaluation(after.result, !white)).append(']');
+            }
+            if (comment.length() > 0) {
+                append(out, line, "{" + comment.toString().trim() + "}");
+            }
+            numberNeeded = comment.length() > 0;
+        }
+        if (game.illegalMove != null) {
+            illegalGames++;
+            append(out, line, "{Lance ilegal: " + game.illegalMove + "}");
+        }
+        append(out, line, result);
+        out.write(line.append("\n\n").toString());
+    }
+
+    // Avaliação limitada a ±MATE_CP, do ponto de vista de quem joga, para que a
+    // perda entre um mate e uma vantagem grande não pareça um erro maior do que é.
+    private static int centipawns(SearchResult result) {
+        if (result.isMate()) {
+            return (result.getScore() > 0) ? MATE_CP : -MATE_CP;
+        }
+        return Math.max(-MATE_CP, Math.min(MATE_CP, result.getScore()));
+    }
+
+    // Avaliação do ponto de vista das brancas, no formato de %eval: 0.35, -1.20, #3, #-2.
+    private static String evaluation(SearchResult result, boolean whiteToMove) {
+        int sign = whiteToMove ? 1 : -1;
+        if (result.isMate()) {
+            return "#" + sign * result.getMateIn();
+        }
+        return String.format(Locale.ROOT, "%.2f", sign * result.getScore() / 100.0);
+    }
+
+    // Acrescenta um símbolo ao texto, quebrando as linhas em até 80 colunas; um
+    // comentário longo é quebrado entre as palavras.
+    private static void append(Writer out, StringBuilder line, String token) throws IOException {
+        for (String word : token.split(" ")) {
+            if (line.length() > 0 && line.length() + 1 + word.length() > LINE_LENGTH) {
+                out.write(line.append('\n').toString());
+                line.setLength(0);
+            }
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(word);
+        }
+    }
+}
\ No newline at end of file
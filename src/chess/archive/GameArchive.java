@@ -0,0 +1,141 @@
+package chess.archive;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Arquivos de partidas, uma por linha:
+//
+//   1-0 e2e4 e7e5 g1f3 ...
+//
+// com o resultado (1-0, 0-1 ou 1/2-1/2) seguido dos lances em notação UCI.
+// Linhas em branco ou começadas por # são ignoradas.
+public class GameArchive {
+
+    public static final int WHITE_WINS = 0;
+    public static final int DRAW = 1;
+    public static final int BLACK_WINS = 2;
+
+    private static final int BATCH_SIZE = 256;
+    private static final List<String> END = new ArrayList<>();
+
+    // Processa as partidas de uma thread; cada thread recebe o seu, então não
+    // precisa ser thread-safe.
+    public interface Worker {
+
+        void game(int result, String[] moves) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    public static int parseResult(String token) {
+        switch (token) {
+            case "1-0": return WHITE_WINS;
+            case "1/2-1/2": return DRAW;
+            case "0-1": return BLACK_WINS;
+            default: return -1;
+        }
+    }
+
+    public static String resultToString(int result) {
+        return (result == WHITE_WINS) ? "1-0" : (result == BLACK_WINS) ? "0-1" : "1/2-1/2";
+    }
+
+    // Lê os arquivos numa thread e distribui as partidas, em lotes, entre threads
+    // trabalhadoras. Devolve o número de linhas descartadas por resultado inválido.
+    public static long process(List<Path> archives, int threads, Supplier<? extends Worker> workers) throws IOException {
+        BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(threads * 4);
+        AtomicLong malformed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i=0; i<threads; i++) {
+            Worker worker = workers.get();
+            futures.add(executor.submit(() -> {
+                work(queue, worker, malformed);
+                return null;
+            }));
+        }
+        try {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            for (Path archive : archives) {
+                try (BufferedReader reader = Files.newBufferedReader(archive, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        batch.add(line);
+                        if (batch.size() == BATCH_SIZE) {
+                            queue.put(batch);
+                            batch = new ArrayList<>(BATCH_SIZE);
+                        }
+                    }
+                }
+            }
+            queue.put(batch);
+            for (int i=0; i<threads; i++) {
+                queue.put(END);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Leitura das partidas interrompida", e);
+        }
+        catch (ExecutionException e) {
+            throw (e.getCause() instanceof IOException) ? (IOException)e.getCause() : new IOException(e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return malformed.get();
+    }
+
+    // Depois de uma falha a thread continua esvaziando a fila, para que a leitura
+    // dos arquivos nunca fique bloqueada esperando espaço nela.
+    private static void work(BlockingQueue<List<String>> queue, Worker worker, AtomicLong malformed) throws Exception {
+        Exception failure = null;
+        while (true) {
+            List<String> batch = queue.take();
+            if (batch == END) {
+                break;
+            }
+            for (int i=0; i<batch.size() && failure == null; i++) {
+                String[] tokens = batch.get(i).trim().split("\\s+");
+                if (tokens[0].isEmpty() || tokens[0].startsWith("#")) {
+                    continue;
+                }
+                int result = parseResult(tokens[0]);
+                if (result < 0) {
+                    malformed.incrementAndGet();
+                    continue;
+                }
+                try {
+                    worker.game(result, Arrays.copyOfRange(tokens, 1, tokens.length));
+                }
+                catch (IOException | RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure == null) {
+            worker.finish();
+        }
+        else {
+            throw failure;
+        }
+    }
+}
\ No newline at end of file
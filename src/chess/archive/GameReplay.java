@@ -0,0 +1,227 @@
+package chess.archive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import chess.ChessMatch;
+import chess.DrawReason;
+import chess.MoveStatus;
+
+// Validação de coleções de partidas: cada partida é jogada desde a posição
+// inicial, com todas as verificações de tryPerformChessMove, até o fim ou até o
+// primeiro lance ilegal. replayAll monta uma árvore de prefixos com os lances
+// de todas as partidas e a percorre em profundidade num só ChessMatch, fazendo
+// e desfazendo os lances, então cada posição das aberturas em comum é calculada
+// uma vez só. O resultado de cada partida é o mesmo de replay.
+public class GameReplay {
+
+    public static class Result {
+
+        private final int plies;
+        private final String illegalMove;
+        private final String fen;
+        private final boolean checkMate;
+        private final DrawReason drawReason;
+
+        Result(int plies, String illegalMove, String fen, boolean checkMate, DrawReason drawReason) {
+            this.plies = plies;
+            this.illegalMove = illegalMove;
+            this.fen = fen;
+            this.checkMate = checkMate;
+            this.drawReason = drawReason;
+        }
+
+        // Lances aceitos; com um lance ilegal, é também o índice dele na partida.
+        public int getPlies() {
+            return plies;
+        }
+
+        public boolean isValid() {
+            return illegalMove == null;
+        }
+
+        public String getIllegalMove() {
+            return illegalMove;
+        }
+
+        // Posição depois do último lance aceito.
+        public String getFen() {
+            return fen;
+        }
+
+        public boolean getCheckMate() {
+            return checkMate;
+        }
+
+        public DrawReason getDrawReason() {
+            return drawReason;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Result)) {
+                return false;
+            }
+            Result other = (Result)o;
+            return plies == other.plies && checkMate == other.checkMate && drawReason == other.drawReason
+                    && Objects.equals(illegalMove, other.illegalMove) && fen.equals(other.fen);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(plies, illegalMove, fen, checkMate, drawReason);
+        }
+
+        @Override
+        public String toString() {
+            return plies + " lances" + (isValid() ? "" : ", ilegal: " + illegalMove) + (checkMate ? ", mate" : "")
+                    + ((drawReason != null) ? ", empate (" + drawReason + ")" : "") + ", " + fen;
+        }
+    }
+
+    public static Result replay(String[] moves) {
+        ChessMatch chessMatch = new ChessMatch();
+        for (int i=0; i<moves.length; i++) {
+            if (!play(chessMatch, moves[i])) {
+                return result(chessMatch, i, moves[i]);
+            }
+        }
+        return result(chessMatch, moves.length, null);
+    }
+
+    public static Result[] replayAll(List<String[]> games) {
+        Trie trie = new Trie();
+        for (int g=0; g<games.size(); g++) {
+            trie.add(g, games.get(g));
+        }
+        Result[] results = new Result[games.size()];
+        ChessMatch chessMatch = new ChessMatch();
+        finish(trie, Trie.ROOT, results, result(chessMatch, 0, null));
+
+        // path guarda os nós do caminho até a posição atual de chessMatch.
+        int[] path = new int[16];
+        int depth = 0;
+        int child = trie.firstChild[Trie.ROOT];
+        while (true) {
+            if (child >= 0) {
+                String move = trie.tokens.get(trie.token[child]);
+                if (play(chessMatch, move)) {
+                    if (depth == path.length) {
+                        path = Arrays.copyOf(path, 2 * depth);
+                    }
+                    path[depth++] = child;
+                    if (trie.firstGame[child] >= 0) {
+                        finish(trie, child, results, result(chessMatch, depth, null));
+                    }
+                    child = trie.firstChild[child];
+                }
+                else {
+                    reject(trie, child, results, result(chessMatch, depth, move));
+                    child = trie.nextSibling[child];
+                }
+                continue;
+            }
+            if (depth == 0) {
+                break;
+            }
+            chessMatch.unmakeMove();
+            child = trie.nextSibling[path[--depth]];
+        }
+        return results;
+    }
+
+    private static boolean play(ChessMatch chessMatch, String move) {
+        int encoded = chessMatch.parseMove(move);
+        return encoded != 0 && chessMatch.tryPerformChessMove(encoded) == MoveStatus.OK;
+    }
+
+    private static Result result(ChessMatch chessMatch, int plies, String illegalMove) {
+        return new Result(plies, illegalMove, chessMatch.getFen(), chessMatch.getCheckMate(), chessMatch.getDraw() ? chessMatch.getDrawReason() : null);
+    }
+
+    // Partidas que terminam exatamente em node.
+    private static void finish(Trie trie, int node, Result[] results, Result result) {
+        for (int g = trie.firstGame[node]; g >= 0; g = trie.nextGame[g]) {
+            results[g] = result;
+        }
+    }
+
+    // Todas as partidas que passam por node param no lance dele, que é ilegal.
+    private static void reject(Trie trie, int node, Result[] results, Result result) {
+        List<Integer> pending = new ArrayList<>();
+        pending.add(node);
+        while (!pending.isEmpty()) {
+            int n = pending.remove(pending.size() - 1);
+            finish(trie, n, results, result);
+            for (int c = trie.firstChild[n]; c >= 0; c = trie.nextSibling[c]) {
+                pending.add(c);
+            }
+        }
+    }
+
+    // Árvore de prefixos em vetores paralelos: cada nó é um lance (índice em
+    // tokens), com o primeiro filho, o próximo irmão e a lista das partidas que
+    // terminam nele.
+    private static class Trie {
+
+        static final int ROOT = 0;
+
+        private final List<String> tokens = new ArrayList<>();
+        private final Map<String, Integer> tokenIds = new HashMap<>();
+        private int[] token = new int[1024];
+        private int[] firstChild = new int[1024];
+        private int[] nextSibling = new int[1024];
+        private int[] firstGame = new int[1024];
+        private int[] nextGame = new int[1024];
+        private int nodeCount;
+
+        Trie() {
+            newNode(-1);
+        }
+
+        void add(int game, String[] moves) {
+            int node = ROOT;
+            for (String move : moves) {
+                Integer id = tokenIds.get(move);
+                if (id == null) {
+                    id = tokens.size();
+                    tokens.add(move);
+                    tokenIds.put(move, id);
+                }
+                int child = firstChild[node];
+                while (child >= 0 && token[child] != id) {
+                    child = nextSibling[child];
+                }
+                if (child < 0) {
+                    child = newNode(id);
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+            if (game >= nextGame.length) {
+                nextGame = Arrays.copyOf(nextGame, Math.max(2 * nextGame.length, game + 1));
+            }
+            nextGame[game] = firstGame[node];
+            firstGame[node] = game;
+        }
+
+        private int newNode(int id) {
+            if (nodeCount == token.length) {
+                int capacity = 2 * nodeCount;
+                token = Arrays.copyOf(token, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                firstGame = Arrays.copyOf(firstGame, capacity);
+            }
+            token[nodeCount] = id;
+            firstChild[nodeCount] = -1;
+            nextSibling[nodeCount] = -1;
+            firstGame[nodeCount] = -1;
+            return nodeCount++;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package chess.broadcast;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import chess.MoveEvent;
+import chess.MoveListener;
+
+public class MoveBroadcaster implements MoveListener, AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = 100_000L;
+
+    private final MoveEvent[] ring;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong();
+    private final Dispatcher[] dispatchers;
+    private int nextDispatcher;
+    private volatile boolean running = true;
+
+    public MoveBroadcaster(int capacity, int threads) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("A capacidade deve ser uma potência de 2.");
+        }
+        ring = new MoveEvent[capacity];
+        mask = capacity - 1;
+        dispatchers = new Dispatcher[threads];
+        for (int i=0; i<threads; i++) {
+            dispatchers[i] = new Dispatcher(capacity);
+            Thread thread = new Thread(dispatchers[i], "move-broadcaster-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public MoveBroadcaster() {
+        this(1024, 1);
+    }
+
+    // Chamado apenas pela thread que joga a partida: um único produtor escreve
+    // o evento na sua posição do anel e só então publica a nova sequência.
+    @Override
+    public void moveMade(MoveEvent event) {
+        long sequence = published.get();
+        ring[(int)(sequence & mask)] = event;
+        published.lazySet(sequence + 1);
+    }
+
+    public synchronized void subscribe(MoveSubscriber subscriber) {
+        Dispatcher dispatcher = dispatchers[nextDispatcher];
+        nextDispatcher = (nextDispatcher + 1) % dispatchers.length;
+        dispatcher.subscriptions.add(new Subscription(subscriber, published.get()));
+    }
+
+    public void unsubscribe(MoveSubscriber subscriber) {
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.subscriptions.removeIf(s -> s.subscriber == subscriber);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+    }
+
+    private static class Subscription {
+
+        private final MoveSubscriber subscriber;
+        private long cursor;
+
+        private Subscription(MoveSubscriber subscriber, long cursor) {
+            this.subscriber = subscriber;
+            this.cursor = cursor;
+        }
+    }
+
+    private class Dispatcher implements Runnable {
+
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private final MoveEvent[] batch;
+
+        private Dispatcher(int capacity) {
+            batch = new MoveEvent[capacity];
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                boolean delivered = false;
+                for (Subscription subscription : subscriptions) {
+                    delivered |= deliver(subscription);
+                }
+                if (!delivered) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private boolean deliver(Subscription subscription) {
+            long available = published.get();
+            if (subscription.cursor == available) {
+                return false;
+            }
+            long oldest = available - ring.length;
+            if (subscription.cursor < oldest) {
+                subscription.subscriber.onOverrun(oldest - subscription.cursor);
+                subscription.cursor = oldest;
+            }
+            int count = (int)(available - subscription.cursor);
+            for (int i=0; i<count; i++) {
+                batch[i] = ring[(int)((subscription.cursor + i) & mask)];
+            }
+            // O produtor pode ter sobrescrito posições enquanto eram copiadas;
+            // nesse caso descarta as mais antigas do lote em vez de entregá-las.
+            // A cerca impede que as leituras do anel passem para depois da nova
+            // leitura de published, o que deixaria escapar uma sobrescrita.
+            VarHandle.acquireFence();
+            long overwritten = published.get() + 1 - ring.length - subscription.cursor;
+            int skip = (int)Math.max(0, Math.min(count, overwritten));
+            if (skip > 0) {
+                subscription.subscriber.onOverrun(skip);
+                System.arraycopy(batch, skip, batch, 0, count - skip);
+                count -= skip;
+            }
+            subscription.cursor = available;
+            if (count > 0) {
+                subscription.subscriber.onEvents(batch, count);
+            }
+            return true;
+        }
+    }
+}
\ No newline at end of file
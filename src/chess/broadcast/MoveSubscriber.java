@@ -0,0 +1,10 @@
+package chess.broadcast;
+
+import chess.MoveEvent;
+
+public interface MoveSubscriber {
+
+    void onEvents(MoveEvent[] events, int count);
+
+    void onOverrun(long missedEvents);
+}
\ No newline at end of file
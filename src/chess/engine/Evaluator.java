@@ -0,0 +1,9 @@
+package chess.engine;
+
+import chess.ChessMatch;
+
+public interface Evaluator {
+
+    // Avaliação da posição em centésimos de peão, do ponto de vista do jogador da vez.
+    int evaluate(ChessMatch chessMatch);
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.pieces.Bishop;
+import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
+
+public class MaterialEvaluator implements Evaluator {
+
+    private static final int CENTER_BONUS = 5;
+    private static final int PAWN_ADVANCE_BONUS = 4;
+
+    @Override
+    public int evaluate(ChessMatch chessMatch) {
+        int rows = chessMatch.getRows();
+        int columns = chessMatch.getColumns();
+        int score = 0;
+        for (int i=0; i<rows; i++) {
+            for (int j=0; j<columns; j++) {
+                ChessPiece p = chessMatch.getPiece(i, j);
+                if (p == null || p instanceof King) {
+                    continue;
+                }
+                int value = p.getValue();
+                if (p instanceof Knight || p instanceof Bishop) {
+                    value += CENTER_BONUS * (centrality(i, rows) + centrality(j, columns));
+                }
+                else if (p instanceof Pawn) {
+                    int advance = (p.getColor() == Color.WHITE) ? rows - 2 - i : i - 1;
+                    value += PAWN_ADVANCE_BONUS * advance;
+                }
+                score += (p.getColor() == Color.WHITE) ? value : -value;
+            }
+        }
+        return (chessMatch.getCurrentPlayer() == Color.WHITE) ? score : -score;
+    }
+
+    private static int centrality(int index, int size) {
+        return Math.min(index, size - 1 - index);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,313 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+
+public class Search {
+
+    public static final int MAX_DEPTH = 64;
+    public static final int MATE = 100000;
+
+    private static final int INFINITY = 1000000;
+    private static final int MAX_PLY = 128;
+    private static final int MAX_MOVES = 256;
+    private static final int PV_MOVE_KEY = 1 << 30;
+    private static final int CAPTURE_KEY = 1 << 20;
+    private static final int PROMOTION_KEY = 1 << 19;
+
+    private final ChessMatch chessMatch;
+    private final Evaluator evaluator;
+
+    private final int[][] moves = new int[MAX_PLY][MAX_MOVES];
+    private final int[][] keys = new int[MAX_PLY][MAX_MOVES];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private int[] previousPv = new int[0];
+    private boolean followingPv;
+
+    private SearchLimits limits;
+    private long moveOverhead;
+    private long nodes;
+    private int completedDepth;
+
+    // Escritos pela thread de entrada (stop, ponderhit) e lidos a cada nó pela busca.
+    private volatile boolean stopped;
+    private volatile boolean pondering;
+    private volatile long startTime;
+    private long softLimit;
+    private long hardLimit;
+
+    public Search(ChessMatch chessMatch) {
+        this(chessMatch, new MaterialEvaluator());
+    }
+
+    public Search(ChessMatch chessMatch, Evaluator evaluator) {
+        this.chessMatch = chessMatch;
+        this.evaluator = evaluator;
+    }
+
+    public void setMoveOverhead(long moveOverhead) {
+        this.moveOverhead = moveOverhead;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    // O adversário jogou o lance previsto: a busca continua, agora contando o tempo.
+    public void ponderHit() {
+        startTime = System.nanoTime();
+        pondering = false;
+    }
+
+    public SearchResult search(SearchLimits limits, SearchListener listener) {
+        this.limits = limits;
+        stopped = false;
+        pondering = limits.isPonder();
+        startTime = System.nanoTime();
+        nodes = 0;
+        completedDepth = 0;
+        previousPv = new int[0];
+        allocateTime();
+
+        SearchResult best;
+        if (!hasLegalMove()) {
+            best = new SearchResult(0, chessMatch.getCheck() ? -MATE : 0, 0, 0, new int[0]);
+        }
+        else {
+            // Uma profundidade ≤ 0 vale como 1: sempre há um lance a devolver.
+            best = null;
+            int maxDepth = Math.max(1, limits.getDepth());
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                followingPv = true;
+                int score = negamax(depth, -INFINITY, INFINITY, 0);
+                if (aborted()) {
+                    break;
+                }
+                completedDepth = depth;
+                previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+                best = new SearchResult(depth, score, nodes, elapsedMillis(), previousPv);
+                if (listener != null) {
+                    listener.iterationCompleted(best);
+                }
+                if (stopped || (!pondering && !limits.isInfinite() && (elapsedMillis() >= softLimit || best.isMate()))) {
+                    break;
+                }
+            }
+        }
+
+        // Em ponder ou infinite o melhor lance só pode ser enviado após stop/ponderhit.
+        while ((pondering || limits.isInfinite()) && !stopped) {
+            LockSupport.parkNanos(200_000L);
+        }
+        return best;
+    }
+
+    private boolean hasLegalMove() {
+        int count = chessMatch.generateMoves(moves[0]);
+        for (int i=0; i<count; i++) {
+            if (chessMatch.playMove(moves[0][i])) {
+                chessMatch.unmakeMove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A primeira iteração sempre termina, para que haja um lance a devolver.
+    private boolean aborted() {
+        return stopped && completedDepth > 0;
+    }
+
+    private void allocateTime() {
+        softLimit = Long.MAX_VALUE;
+        hardLimit = Long.MAX_VALUE;
+        if (limits.getMoveTime() > 0) {
+            softLimit = Math.max(1, limits.getMoveTime() - moveOverhead);
+            hardLimit = softLimit;
+        }
+        else if (limits.hasClock()) {
+            boolean white = chessMatch.getCurrentPlayer() == Color.WHITE;
+            long remaining = white ? limits.getWhiteTime() : limits.getBlackTime();
+            long increment = white ? limits.getWhiteIncrement() : limits.getBlackIncrement();
+            int movesToGo = (limits.getMovesToGo() > 0) ? Math.min(limits.getMovesToGo(), 40) : 30;
+            long available = Math.max(1, remaining - moveOverhead);
+            long base = remaining / movesToGo + increment * 3 / 4;
+            softLimit = Math.max(1, Math.min(available, base));
+            hardLimit = Math.max(softLimit, Math.min(available, Math.min(base * 4, available / 2)));
+        }
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000L;
+    }
+
+    private void checkLimits() {
+        if (completedDepth == 0) {
+            return;
+        }
+        if (nodes >= limits.getNodes() || (!pondering && hardLimit != Long.MAX_VALUE && elapsedMillis() >= hardLimit)) {
+            stopped = true;
+        }
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (ply > 0 && (chessMatch.getHalfMoveClock() >= 100 || chessMatch.isRepetition())) {
+            return 0;
+        }
+        boolean inCheck = chessMatch.getCheck();
+        if (inCheck && ply < MAX_DEPTH) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply);
+        }
+        nodes++;
+        checkLimits();
+        if (aborted()) {
+            return 0;
+        }
+
+        int count = orderMoves(ply, false);
+        int legal = 0;
+        int best = -INFINITY;
+        for (int i=0; i<count; i++) {
+            int move = nextMove(ply, i, count);
+            boolean pvMove = followingPv && keys[ply][i] >= PV_MOVE_KEY;
+            if (!pvMove) {
+                followingPv = false;
+            }
+            if (!chessMatch.playMove(move)) {
+                continue;
+            }
+            legal++;
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            chessMatch.unmakeMove();
+            if (aborted()) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        return best;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        nodes++;
+        checkLimits();
+        if (aborted()) {
+            return 0;
+        }
+        int standPat = evaluator.evaluate(chessMatch);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int count = orderMoves(ply, true);
+        for (int i=0; i<count; i++) {
+            int move = nextMove(ply, i, count);
+            if (!chessMatch.playMove(move)) {
+                continue;
+            }
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            chessMatch.unmakeMove();
+            if (aborted()) {
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    // Gera e pontua os lances do nó: primeiro o da variante principal anterior,
+    // depois capturas pela vítima mais valiosa/atacante menos valioso, promoções
+    // e os demais. Na quiescência ficam só capturas que não perdem material (SEE).
+    private int orderMoves(int ply, boolean capturesOnly) {
+        int[] list = moves[ply];
+        int[] scores = keys[ply];
+        int generated = chessMatch.generateMoves(list);
+        int pvMove = (followingPv && ply < previousPv.length) ? previousPv[ply] : 0;
+        int count = 0;
+        for (int i=0; i<generated; i++) {
+            int move = list[i];
+            ChessPiece victim = chessMatch.getCapturedPiece(move);
+            boolean promotion = ((move >> 20) & 7) != 0;
+            int key = 0;
+            if (victim != null) {
+                if (capturesOnly && chessMatch.staticExchange(move) < 0) {
+                    continue;
+                }
+                key = CAPTURE_KEY + victim.getValue() * 16 - chessMatch.getMovingPiece(move).getValue() / 100;
+            }
+            else if (promotion) {
+                key = PROMOTION_KEY + ((move >> 20) & 7);
+            }
+            else if (capturesOnly) {
+                continue;
+            }
+            if (move == pvMove && !capturesOnly) {
+                key = PV_MOVE_KEY;
+            }
+            list[count] = move;
+            scores[count] = key;
+            count++;
+        }
+        return count;
+    }
+
+    private int nextMove(int ply, int index, int count) {
+        int[] list = moves[ply];
+        int[] scores = keys[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = list[best];
+        int key = scores[best];
+        list[best] = list[index];
+        scores[best] = scores[index];
+        list[index] = move;
+        scores[index] = key;
+        return move;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        for (int i = ply + 1; i < pvLength[ply + 1]; i++) {
+            pv[ply][i] = pv[ply + 1][i];
+        }
+        pvLength[ply] = Math.max(ply + 1, pvLength[ply + 1]);
+    }
+}
\ No newline at end of file
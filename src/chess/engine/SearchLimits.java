@@ -0,0 +1,99 @@
+package chess.engine;
+
+public class SearchLimits {
+
+    private int depth = Search.MAX_DEPTH;
+    private long nodes = Long.MAX_VALUE;
+    private long moveTime;
+    private long whiteTime;
+    private long blackTime;
+    private long whiteIncrement;
+    private long blackIncrement;
+    private int movesToGo;
+    private boolean infinite;
+    private boolean ponder;
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public long getMoveTime() {
+        return moveTime;
+    }
+
+    public void setMoveTime(long moveTime) {
+        this.moveTime = moveTime;
+    }
+
+    public long getWhiteTime() {
+        return whiteTime;
+    }
+
+    public void setWhiteTime(long whiteTime) {
+        this.whiteTime = whiteTime;
+    }
+
+    public long getBlackTime() {
+        return blackTime;
+    }
+
+    public void setBlackTime(long blackTime) {
+        this.blackTime = blackTime;
+    }
+
+    public long getWhiteIncrement() {
+        return whiteIncrement;
+    }
+
+    public void setWhiteIncrement(long whiteIncrement) {
+        this.whiteIncrement = whiteIncrement;
+    }
+
+    public long getBlackIncrement() {
+        return blackIncrement;
+    }
+
+    public void setBlackIncrement(long blackIncrement) {
+        this.blackIncrement = blackIncrement;
+    }
+
+    public int getMovesToGo() {
+        return movesToGo;
+    }
+
+    public void setMovesToGo(int movesToGo) {
+        this.movesToGo = movesToGo;
+    }
+
+    public boolean isInfinite() {
+        return infinite;
+    }
+
+    public void setInfinite(boolean infinite) {
+        this.infinite = infinite;
+    }
+
+    public boolean isPonder() {
+        return ponder;
+    }
+
+    public void setPonder(boolean ponder) {
+        this.ponder = ponder;
+    }
+
+    public boolean hasClock() {
+        return whiteTime > 0 || blackTime > 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package chess.engine;
+
+public interface SearchListener {
+
+    void iterationCompleted(SearchResult result);
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package chess.engine;
+
+public class SearchResult {
+
+    private final int depth;
+    private final int score;
+    private final long nodes;
+    private final long timeMillis;
+    private final int[] pv;
+
+    public SearchResult(int depth, int score, long nodes, long timeMillis, int[] pv) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.pv = pv;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, timeMillis);
+    }
+
+    public int[] getPv() {
+        return pv;
+    }
+
+    public int getBestMove() {
+        return (pv.length > 0) ? pv[0] : 0;
+    }
+
+    public int getPonderMove() {
+        return (pv.length > 1) ? pv[1] : 0;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_DEPTH;
+    }
+
+    // Número de lances (não meios-lances) até o mate; negativo quando quem joga leva mate.
+    public int getMateIn() {
+        int plies = Search.MATE - Math.abs(score);
+        return (score > 0) ? (plies + 1) / 2 : -(plies / 2);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package chess.engine.nnue;
+
+// Operações vetoriais da rede. VectorKernels usa jdk.incubator.vector e fica na
+// raiz src-vector, compilada à parte com --add-modules jdk.incubator.vector sobre
+// as classes de src; best() só a carrega se ela estiver no classpath e o módulo
+// presente (java --add-modules jdk.incubator.vector). Sem isso, devolve a versão
+// escalar, com resultados idênticos.
+public abstract class Kernels {
+
+    public static final int ACTIVATION_MAX = 127;
+
+    // acumulador[i] += pesos[offset + i], para i em [0, acumulador.length)
+    public abstract void add(int[] accumulator, int[] weights, int offset);
+
+    public abstract void subtract(int[] accumulator, int[] weights, int offset);
+
+    // output[outputOffset + i] = clamp(input[i] >> shift, 0, ACTIVATION_MAX)
+    public abstract void clippedRelu(int[] input, int count, int shift, int[] output, int outputOffset);
+
+    // output[j] = biases[j] + soma de weights[j * inputs + i] * input[i]
+    public abstract void dense(int[] input, int inputs, int[] weights, int[] biases, int[] output, int outputs);
+
+    public abstract String getName();
+
+    public static Kernels scalar() {
+        return new ScalarKernels();
+    }
+
+    public static Kernels best() {
+        try {
+            return (Kernels)Class.forName("chess.engine.nnue.VectorKernels").getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError e) {
+            return scalar();
+        }
+    }
+}
\ No newline at end of file
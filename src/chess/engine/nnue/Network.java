@@ -0,0 +1,203 @@
+package chess.engine.nnue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Pesos de uma rede no estilo NNUE:
+//
+//   768 entradas (6 tipos x 2 cores x 64 casas, do ponto de vista de cada lado)
+//   -> acumulador de H neurônios por lado, atualizado a cada peça movida
+//   -> [nosso acumulador, acumulador do adversário] em clipped ReLU (0..127)
+//   -> camada densa de L2 neurônios -> camada densa de L3 neurônios -> 1 saída
+//
+// Arquivo binário little-endian: cabeçalho com MAGIC, VERSION, H, L2 e L3 (ints),
+// seguido de bias (short) e pesos (short) da primeira camada, com os H pesos de
+// cada entrada juntos, e de bias (int) e pesos (byte) de cada camada densa, com
+// as entradas de cada neurônio juntas.
+public class Network {
+
+    public static final int MAGIC = 0x45554E4E;
+    public static final int VERSION = 1;
+    public static final int FEATURES = 768;
+
+    final int hidden;
+    final int layer2;
+    final int layer3;
+    final int[] featureBiases;
+    final int[] featureWeights;
+    final int[] biases2;
+    final int[] weights2;
+    final int[] biases3;
+    final int[] weights3;
+    final int[] outputBias;
+    final int[] outputWeights;
+
+    private Network(int hidden, int layer2, int layer3) {
+        if (hidden <= 0 || layer2 <= 0 || layer3 <= 0 || hidden > 4096 || layer2 > 1024 || layer3 > 1024) {
+            throw new IllegalArgumentException("Dimensões de rede inválidas: " + hidden + "x" + layer2 + "x" + layer3);
+        }
+        this.hidden = hidden;
+        this.layer2 = layer2;
+        this.layer3 = layer3;
+        featureBiases = new int[hidden];
+        featureWeights = new int[FEATURES * hidden];
+        biases2 = new int[layer2];
+        weights2 = new int[layer2 * 2 * hidden];
+        biases3 = new int[layer3];
+        weights3 = new int[layer3 * layer2];
+        outputBias = new int[1];
+        outputWeights = new int[layer3];
+    }
+
+    public int getHidden() {
+        return hidden;
+    }
+
+    public static Network load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    public static Network read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        ByteBuffer header = readBytes(in, 20);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Arquivo não é uma rede NNUE");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Versão de rede não suportada: " + version);
+        }
+        Network network;
+        try {
+            network = new Network(header.getInt(), header.getInt(), header.getInt());
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        readShorts(in, network.featureBiases);
+        readShorts(in, network.featureWeights);
+        readInts(in, network.biases2);
+        readBytes(in, network.weights2);
+        readInts(in, network.biases3);
+        readBytes(in, network.weights3);
+        readInts(in, network.outputBias);
+        readBytes(in, network.outputWeights);
+        if (in.read() >= 0) {
+            throw new IOException("Dados sobrando no fim da rede");
+        }
+        return network;
+    }
+
+    public void save(Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        ByteBuffer header = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(hidden).putInt(layer2).putInt(layer3);
+        out.write(header.array());
+        writeShorts(out, featureBiases);
+        writeShorts(out, featureWeights);
+        writeInts(out, biases2);
+        writeBytes(out, weights2);
+        writeInts(out, biases3);
+        writeBytes(out, weights3);
+        writeInts(out, outputBias);
+        writeBytes(out, outputWeights);
+        out.flush();
+    }
+
+    // Rede com pesos aleatórios, para testes e benchmarks enquanto não há uma treinada
+    // (por exemplo com as posições de TrainingExporter).
+    public static Network random(int hidden, int layer2, int layer3, long seed) {
+        Network network = new Network(hidden, layer2, layer3);
+        SplittableRandom random = new SplittableRandom(seed);
+        fill(random, network.featureBiases, 0, 32);
+        fill(random, network.featureWeights, -8, 8);
+        fill(random, network.biases2, -64, 64);
+        fill(random, network.weights2, -8, 8);
+        fill(random, network.biases3, -64, 64);
+        fill(random, network.weights3, -8, 8);
+        fill(random, network.outputBias, -64, 64);
+        fill(random, network.outputWeights, -64, 64);
+        return network;
+    }
+
+    private static void fill(SplittableRandom random, int[] values, int min, int max) {
+        for (int i=0; i<values.length; i++) {
+            values[i] = random.nextInt(min, max + 1);
+        }
+    }
+
+    private static ByteBuffer readBytes(DataInputStream in, int count) throws IOException {
+        byte[] bytes = new byte[count];
+        try {
+            in.readFully(bytes);
+        }
+        catch (EOFException e) {
+            throw new IOException("Rede truncada", e);
+        }
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void readShorts(DataInputStream in, int[] values) throws IOException {
+        ByteBuffer buffer = readBytes(in, values.length * 2);
+        for (int i=0; i<values.length; i++) {
+            values[i] = buffer.getShort();
+        }
+    }
+
+    private static void readInts(DataInputStream in, int[] values) throws IOException {
+        ByteBuffer buffer = readBytes(in, values.length * 4);
+        for (int i=0; i<values.length; i++) {
+            values[i] = buffer.getInt();
+        }
+    }
+
+    private static void readBytes(DataInputStream in, int[] values) throws IOException {
+        ByteBuffer buffer = readBytes(in, values.length);
+        for (int i=0; i<values.length; i++) {
+            values[i] = buffer.get();
+        }
+    }
+
+    private static void writeShorts(DataOutputStream out, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) {
+            buffer.putShort((short)value);
+        }
+        out.write(buffer.array());
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        out.write(buffer.array());
+    }
+
+    private static void writeBytes(DataOutputStream out, int[] values) throws IOException {
+        byte[] bytes = new byte[values.length];
+        for (int i=0; i<values.length; i++) {
+            bytes[i] = (byte)values[i];
+        }
+        out.write(bytes);
+    }
+}
\ No newline at end of file
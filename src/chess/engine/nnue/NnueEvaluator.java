@@ -0,0 +1,119 @@
+package chess.engine.nnue;
+
+import chess.BoardListener;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.engine.Evaluator;
+
+// Avalia com uma Network mantendo os acumuladores da primeira camada em dia a cada
+// peça tirada ou posta no tabuleiro (BoardListener): um lance custa duas ou três
+// somas de colunas de H pesos por lado, em vez das 768 x H multiplicações da
+// camada inteira. Ao avaliar uma partida diferente da última, ou se o listener da
+// partida foi trocado, os acumuladores são recalculados do zero.
+//
+// Cada instância acompanha uma partida por vez e não é thread-safe: use uma por
+// Search, como os outros Evaluator.
+public class NnueEvaluator implements Evaluator, BoardListener {
+
+    private static final int SQUARES = 64;
+    private static final int DENSE_SHIFT = 6;
+    private static final int OUTPUT_DIVISOR = 16;
+
+    private final Network network;
+    private final Kernels kernels;
+    private final int[] white;
+    private final int[] black;
+    private final int[] input;
+    private final int[] hidden2;
+    private final int[] active2;
+    private final int[] hidden3;
+    private final int[] active3;
+    private final int[] output = new int[1];
+    private ChessMatch chessMatch;
+
+    public NnueEvaluator(Network network) {
+        this(network, Kernels.best());
+    }
+
+    public NnueEvaluator(Network network, Kernels kernels) {
+        this.network = network;
+        this.kernels = kernels;
+        white = new int[network.hidden];
+        black = new int[network.hidden];
+        input = new int[2 * network.hidden];
+        hidden2 = new int[network.layer2];
+        active2 = new int[network.layer2];
+        hidden3 = new int[network.layer3];
+        active3 = new int[network.layer3];
+    }
+
+    public Kernels getKernels() {
+        return kernels;
+    }
+
+    @Override
+    public int evaluate(ChessMatch chessMatch) {
+        if (chessMatch != this.chessMatch || chessMatch.getBoardListener() != this) {
+            attach(chessMatch);
+        }
+        int hidden = network.hidden;
+        boolean whiteToMove = chessMatch.getCurrentPlayer() == Color.WHITE;
+        kernels.clippedRelu(whiteToMove ? white : black, hidden, 0, input, 0);
+        kernels.clippedRelu(whiteToMove ? black : white, hidden, 0, input, hidden);
+        kernels.dense(input, 2 * hidden, network.weights2, network.biases2, hidden2, network.layer2);
+        kernels.clippedRelu(hidden2, network.layer2, DENSE_SHIFT, active2, 0);
+        kernels.dense(active2, network.layer2, network.weights3, network.biases3, hidden3, network.layer3);
+        kernels.clippedRelu(hidden3, network.layer3, DENSE_SHIFT, active3, 0);
+        kernels.dense(active3, network.layer3, network.outputWeights, network.outputBias, output, 1);
+        return output[0] / OUTPUT_DIVISOR;
+    }
+
+    private void attach(ChessMatch chessMatch) {
+        if (this.chessMatch != null && this.chessMatch.getBoardListener() == this) {
+            this.chessMatch.setBoardListener(null);
+        }
+        this.chessMatch = chessMatch;
+        chessMatch.setBoardListener(this);
+        System.arraycopy(network.featureBiases, 0, white, 0, white.length);
+        System.arraycopy(network.featureBiases, 0, black, 0, black.length);
+        for (int i=0; i<chessMatch.getRows(); i++) {
+            for (int j=0; j<chessMatch.getColumns(); j++) {
+                ChessPiece p = chessMatch.getPiece(i, j);
+                if (p != null) {
+                    piecePlaced(p, i * chessMatch.getColumns() + j);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void pieceRemoved(ChessPiece piece, int square) {
+        kernels.subtract(white, network.featureWeights, feature(piece, square, Color.WHITE) * network.hidden);
+        kernels.subtract(black, network.featureWeights, feature(piece, square, Color.BLACK) * network.hidden);
+    }
+
+    @Override
+    public void piecePlaced(ChessPiece piece, int square) {
+        kernels.add(white, network.featureWeights, feature(piece, square, Color.WHITE) * network.hidden);
+        kernels.add(black, network.featureWeights, feature(piece, square, Color.BLACK) * network.hidden);
+    }
+
+    // Do ponto de vista das pretas o tabuleiro é espelhado na vertical e as cores
+    // trocadas, para que a mesma rede sirva aos dois lados.
+    private static int feature(ChessPiece piece, int square, Color perspective) {
+        int kind = type(piece) + ((piece.getColor() == perspective) ? 0 : 6);
+        return kind * SQUARES + ((perspective == Color.WHITE) ? square : square ^ 56);
+    }
+
+    private static int type(ChessPiece piece) {
+        switch (piece.toString().charAt(0)) {
+            case 'P': return 0;
+            case 'N': return 1;
+            case 'B': return 2;
+            case 'R': return 3;
+            case 'Q': return 4;
+            default: return 5;
+        }
+    }
+}
\ No newline at end of file
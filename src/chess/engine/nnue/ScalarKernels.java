@@ -0,0 +1,42 @@
+package chess.engine.nnue;
+
+class ScalarKernels extends Kernels {
+
+    @Override
+    public void add(int[] accumulator, int[] weights, int offset) {
+        for (int i=0; i<accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(int[] accumulator, int[] weights, int offset) {
+        for (int i=0; i<accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public void clippedRelu(int[] input, int count, int shift, int[] output, int outputOffset) {
+        for (int i=0; i<count; i++) {
+            output[outputOffset + i] = Math.max(0, Math.min(ACTIVATION_MAX, input[i] >> shift));
+        }
+    }
+
+    @Override
+    public void dense(int[] input, int inputs, int[] weights, int[] biases, int[] output, int outputs) {
+        for (int j=0; j<outputs; j++) {
+            int sum = biases[j];
+            int row = j * inputs;
+            for (int i=0; i<inputs; i++) {
+                sum += weights[row + i] * input[i];
+            }
+            output[j] = sum;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "escalar";
+    }
+}
\ No newline at end of file
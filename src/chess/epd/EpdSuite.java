@@ -0,0 +1,252 @@
+package chess.epd;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+
+// Roda suítes de teste EPD (WAC, STS, Bratko-Kopec), uma posição por linha:
+//
+//   <peças> <vez> <roque> <en passant> bm Qg6; id "WAC.001";
+//
+// Cada posição é analisada numa thread do pool com seu próprio ChessMatch e
+// Search, sob o mesmo limite de tempo ou de nós. Uma posição está resolvida se o
+// lance final estiver entre os de bm (quando houver) e fora dos de am.
+public class EpdSuite {
+
+    public static class Position {
+
+        private final String id;
+        private final String fen;
+        private final Map<String, List<String>> operations;
+        private SearchResult result;
+        private String bestMove;
+        private boolean solved;
+        private long solvedMillis = -1;
+        private long solvedNodes = -1;
+        private String error;
+
+        Position(String id, String fen, Map<String, List<String>> operations) {
+            this.id = id;
+            this.fen = fen;
+            this.operations = operations;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getFen() {
+            return fen;
+        }
+
+        public List<String> getOperands(String opcode) {
+            return operations.getOrDefault(opcode, Collections.emptyList());
+        }
+
+        public SearchResult getResult() {
+            return result;
+        }
+
+        // Lance final da análise em notação algébrica.
+        public String getBestMove() {
+            return bestMove;
+        }
+
+        public boolean isSolved() {
+            return solved;
+        }
+
+        // Tempo e nós da iteração a partir da qual o lance certo não mudou mais; -1
+        // se a posição não foi resolvida.
+        public long getSolvedMillis() {
+            return solvedMillis;
+        }
+
+        public long getSolvedNodes() {
+            return solvedNodes;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long moveTime = 1000;
+    private long nodes;
+    private int depth;
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    // Limite por posição em milissegundos; 0 para limitar só por nós ou profundidade.
+    public void setMoveTime(long moveTime) {
+        this.moveTime = moveTime;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public static List<Position> read(Path path) throws IOException {
+        List<Position> positions = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.trim().split("\\s+", 5);
+            if (fields.length < 4) {
+                throw new IOException("Linha " + lineNumber + " inválida: " + line);
+            }
+            Map<String, List<String>> operations = parseOperations((fields.length > 4) ? fields[4] : "");
+            List<String> id = operations.get("id");
+            String fen = fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3] + " "
+                    + first(operations.get("hmvc"), "0") + " " + first(operations.get("fmvn"), "1");
+            positions.add(new Position((id == null || id.isEmpty()) ? String.valueOf(lineNumber) : id.get(0), fen, operations));
+        }
+        return positions;
+    }
+
+    private static String first(List<String> operands, String missing) {
+        return (operands == null || operands.isEmpty()) ? missing : operands.get(0);
+    }
+
+    // Operações separadas por ';', cada uma com o opcode e os operandos separados
+    // por espaços; operandos entre aspas podem conter espaços e ';'.
+    static Map<String, List<String>> parseOperations(String s) {
+        Map<String, List<String>> operations = new LinkedHashMap<>();
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        for (int i=0; i<=s.length(); i++) {
+            char c = (i < s.length()) ? s.charAt(i) : ';';
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                }
+                else {
+                    token.append(c);
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ';' || Character.isWhitespace(c)) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                if (c == ';' && !tokens.isEmpty()) {
+                    operations.put(tokens.get(0), new ArrayList<>(tokens.subList(1, tokens.size())));
+                    tokens.clear();
+                }
+            }
+            else {
+                token.append(c);
+            }
+        }
+        return operations;
+    }
+
+    public void run(List<Position> positions) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Position position : positions) {
+                futures.add(executor.submit(() -> analyze(position)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void analyze(Position position) {
+        try {
+            ChessMatch chessMatch = new ChessMatch(position.fen);
+            List<Integer> best = resolve(chessMatch, position, "bm");
+            List<Integer> avoid = resolve(chessMatch, position, "am");
+            if (best.isEmpty() && avoid.isEmpty()) {
+                position.error = "sem bm nem am";
+                return;
+            }
+            Search search = new Search(chessMatch);
+            SearchLimits limits = new SearchLimits();
+            if (moveTime > 0) {
+                limits.setMoveTime(moveTime);
+            }
+            if (nodes > 0) {
+                limits.setNodes(nodes);
+            }
+            if (depth > 0) {
+                limits.setDepth(depth);
+            }
+            position.result = search.search(limits, result -> {
+                if (isSolution(result.getBestMove(), best, avoid)) {
+                    if (position.solvedMillis < 0) {
+                        position.solvedMillis = result.getTimeMillis();
+                        position.solvedNodes = result.getNodes();
+                    }
+                }
+                else {
+                    position.solvedMillis = -1;
+                    position.solvedNodes = -1;
+                }
+            });
+            int move = position.result.getBestMove();
+            position.bestMove = (move == 0) ? "-" : chessMatch.moveToSan(move);
+            position.solved = isSolution(move, best, avoid);
+            if (!position.solved) {
+                position.solvedMillis = -1;
+                position.solvedNodes = -1;
+            }
+        }
+        catch (ChessException | IllegalStateException | NumberFormatException e) {
+            position.error = e.getMessage();
+        }
+    }
+
+    private static List<Integer> resolve(ChessMatch chessMatch, Position position, String opcode) {
+        List<Integer> moves = new ArrayList<>();
+        for (String san : position.getOperands(opcode)) {
+            int move = chessMatch.parseSan(san);
+            if (move == 0) {
+                throw new ChessException("Lance " + san + " de " + opcode + " não é legal");
+            }
+            moves.add(move);
+        }
+        return moves;
+    }
+
+    private static boolean isSolution(int move, List<Integer> best, List<Integer> avoid) {
+        return move != 0 && (best.isEmpty() || best.contains(move)) && !avoid.contains(move);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,430 @@
+package chess.explorer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import chess.ChessMatch;
+import chess.archive.GameArchive;
+
+// Monta o ExplorerIndex a partir de arquivos de partidas (ver GameArchive).
+// Cada thread reproduz as partidas no seu próprio ChessMatch e acumula um índice
+// parcial; quando ele passa de maxPositionsPerRun posições é gravado ordenado
+// num arquivo temporário. No final os arquivos são intercalados (merge) direto
+// no índice, então a memória usada não depende do tamanho do arquivo de saída.
+public class ExplorerBuilder {
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxPositionsPerRun = 1 << 20;
+    private int maxPlies = 60;
+
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong rejectedGames = new AtomicLong();
+    private long positions;
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setMaxPositionsPerRun(int maxPositionsPerRun) {
+        this.maxPositionsPerRun = maxPositionsPerRun;
+    }
+
+    // Só as posições dos primeiros maxPlies meios-lances de cada partida entram no índice.
+    public void setMaxPlies(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    public long getGames() {
+        return games.get();
+    }
+
+    public long getRejectedGames() {
+        return rejectedGames.get();
+    }
+
+    public long getPositions() {
+        return positions;
+    }
+
+    public void build(List<Path> archives, Path output) throws IOException {
+        Path directory = Files.createTempDirectory(output.toAbsolutePath().getParent(), "explorer");
+        List<Path> runs = new ArrayList<>();
+        try {
+            replay(archives, directory, runs);
+            merge(runs, directory, output);
+        }
+        finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            Files.deleteIfExists(directory.resolve("entries"));
+            Files.deleteIfExists(directory.resolve("moves"));
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private void replay(List<Path> archives, Path directory, List<Path> runs) throws IOException {
+        long malformed = GameArchive.process(archives, threads, () -> new Worker(directory, runs));
+        rejectedGames.addAndGet(malformed);
+    }
+
+    private class Worker implements GameArchive.Worker {
+
+        private final Path directory;
+        private final List<Path> runs;
+        private final PartialIndex partial = new PartialIndex();
+        private final long[] keys = new long[maxPlies + 1];
+        private final int[] moves = new int[maxPlies + 1];
+
+        Worker(Path directory, List<Path> runs) {
+            this.directory = directory;
+            this.runs = runs;
+        }
+
+        @Override
+        public void game(int result, String[] tokens) throws IOException {
+            try {
+                addGame(result, tokens);
+            }
+            catch (RuntimeException e) {
+                rejectedGames.incrementAndGet();
+            }
+            if (partial.size() >= maxPositionsPerRun) {
+                spill();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (partial.size() > 0) {
+                spill();
+            }
+        }
+
+        private void spill() throws IOException {
+            Path run = partial.spill(directory);
+            synchronized (runs) {
+                runs.add(run);
+            }
+        }
+
+        // A partida só entra no índice se todos os seus lances forem legais.
+        private void addGame(int result, String[] tokens) {
+            ChessMatch chessMatch = new ChessMatch();
+            int plies = Math.min(tokens.length, maxPlies);
+            for (int i=0; i<plies; i++) {
+                keys[i] = chessMatch.getPositionKey();
+                moves[i] = chessMatch.parseMove(tokens[i]);
+                if (moves[i] == 0 || !chessMatch.playMove(moves[i])) {
+                    rejectedGames.incrementAndGet();
+                    return;
+                }
+            }
+            keys[plies] = chessMatch.getPositionKey();
+            moves[plies] = 0;
+            for (int i=0; i<=plies; i++) {
+                partial.add(keys[i], result, moves[i], !repeated(i));
+            }
+            games.incrementAndGet();
+        }
+
+        // A posição de keys[i] já apareceu antes nesta partida? Só posições com o
+        // mesmo lado a jogar podem se repetir, então basta olhar de dois em dois.
+        private boolean repeated(int i) {
+            for (int j = i - 2; j >= 0; j -= 2) {
+                if (keys[j] == keys[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void merge(List<Path> runs, Path directory, Path output) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>((a, b) -> Long.compare(a.node.key, b.node.key));
+        Path entriesPath = directory.resolve("entries");
+        Path movesPath = directory.resolve("moves");
+        long moveCount = 0;
+        positions = 0;
+        try (RecordWriter entries = new RecordWriter(entriesPath); RecordWriter moves = new RecordWriter(movesPath)) {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunReader first = queue.poll();
+                Node merged = first.node;
+                if (first.next()) {
+                    queue.add(first);
+                }
+                while (!queue.isEmpty() && queue.peek().node.key == merged.key) {
+                    RunReader other = queue.poll();
+                    merged.merge(other.node);
+                    if (other.next()) {
+                        queue.add(other);
+                    }
+                }
+                merged.sortMoves();
+                entries.putLong(merged.key);
+                entries.putInt(merged.games);
+                entries.putInt(merged.results[0]);
+                entries.putInt(merged.results[1]);
+                entries.putInt(merged.results[2]);
+                entries.putLong(moveCount);
+                for (int i=0; i<merged.size; i++) {
+                    moves.putInt(merged.moves[i]);
+                    moves.putInt(merged.counts[i]);
+                }
+                moveCount += merged.size;
+                positions++;
+            }
+        }
+        finally {
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(ExplorerIndex.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(ExplorerIndex.MAGIC).putInt(ExplorerIndex.VERSION).putLong(positions).putLong(moveCount).flip();
+            header.limit(header.capacity());
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            append(out, entriesPath);
+            append(out, movesPath);
+        }
+    }
+
+    private static void append(FileChannel out, Path path) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static class Node {
+
+        long key;
+        int games;
+        int[] results = new int[3];
+        int[] moves = new int[4];
+        int[] counts = new int[4];
+        int size;
+
+        // O lance 0 marca a posição final da partida (ou do limite de meios-lances).
+        // Uma partida conta uma vez por posição, mesmo que passe por ela de novo;
+        // os lances contam a cada vez.
+        void add(int result, int move, boolean newGame) {
+            if (newGame) {
+                results[result]++;
+                games++;
+            }
+            if (move != 0) {
+                addMove(move, 1);
+            }
+        }
+
+        void addMove(int move, int count) {
+            for (int i=0; i<size; i++) {
+                if (moves[i] == move) {
+                    counts[i] += count;
+                    return;
+                }
+            }
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            moves[size] = move;
+            counts[size] = count;
+            size++;
+        }
+
+        void merge(Node other) {
+            games += other.games;
+            for (int i=0; i<3; i++) {
+                results[i] += other.results[i];
+            }
+            for (int i=0; i<other.size; i++) {
+                addMove(other.moves[i], other.counts[i]);
+            }
+        }
+
+        void sortMoves() {
+            for (int i=1; i<size; i++) {
+                int move = moves[i];
+                int count = counts[i];
+                int j = i - 1;
+                while (j >= 0 && (counts[j] < count || (counts[j] == count && moves[j] > move))) {
+                    moves[j + 1] = moves[j];
+                    counts[j + 1] = counts[j];
+                    j--;
+                }
+                moves[j + 1] = move;
+                counts[j + 1] = count;
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(key);
+            out.writeInt(games);
+            out.writeInt(results[0]);
+            out.writeInt(results[1]);
+            out.writeInt(results[2]);
+            out.writeInt(size);
+            for (int i=0; i<size; i++) {
+                out.writeInt(moves[i]);
+                out.writeInt(counts[i]);
+            }
+        }
+
+        void read(DataInputStream in) throws IOException {
+            key = in.readLong();
+            games = in.readInt();
+            results[0] = in.readInt();
+            results[1] = in.readInt();
+            results[2] = in.readInt();
+            size = in.readInt();
+            if (moves.length < size) {
+                moves = new int[size];
+                counts = new int[size];
+            }
+            for (int i=0; i<size; i++) {
+                moves[i] = in.readInt();
+                counts[i] = in.readInt();
+            }
+        }
+    }
+
+    private static class PartialIndex {
+
+        private final Map<Long, Node> nodes = new HashMap<>();
+
+        int size() {
+            return nodes.size();
+        }
+
+        void add(long key, int result, int move, boolean newGame) {
+            Node node = nodes.get(key);
+            if (node == null) {
+                node = new Node();
+                node.key = key;
+                nodes.put(key, node);
+            }
+            node.add(result, move, newGame);
+        }
+
+        Path spill(Path directory) throws IOException {
+            long[] keys = new long[nodes.size()];
+            int i = 0;
+            for (long key : nodes.keySet()) {
+                keys[i++] = key;
+            }
+            Arrays.sort(keys);
+            Path run = Files.createTempFile(directory, "run", null);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                for (long key : keys) {
+                    nodes.get(key).write(out);
+                }
+            }
+            nodes.clear();
+            return run;
+        }
+    }
+
+    private static class RunReader {
+
+        private final DataInputStream in;
+        Node node = new Node();
+
+        RunReader(Path run) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        // Cada chamada lê o próximo registro num Node novo, pois o anterior pode
+        // ter ficado com o merge como acumulador.
+        boolean next() throws IOException {
+            node = new Node();
+            try {
+                node.read(in);
+                return true;
+            }
+            catch (EOFException e) {
+                in.close();
+                return false;
+            }
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Grava registros little-endian, no formato lido por ExplorerIndex, por um buffer direto.
+    private static class RecordWriter implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+        RecordWriter(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            }
+            finally {
+                channel.close();
+            }
+        }
+    }
+}
\ No newline at end of file
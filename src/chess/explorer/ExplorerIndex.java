@@ -0,0 +1,124 @@
+package chess.explorer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import chess.ChessMatch;
+
+// Índice do explorador mapeado em memória. O arquivo tem um cabeçalho, as
+// posições ordenadas pela chave e, em seguida, os lances de todas as posições:
+//
+//   cabeçalho (32 bytes): magic, versão, número de posições, número de lances
+//   posição   (32 bytes): chave, partidas, vitórias brancas, empates,
+//                         vitórias pretas, índice do primeiro lance
+//   lance     (8 bytes):  lance codificado, partidas
+//
+// Os dados ficam fora do heap; o arquivo é mapeado em segmentos de 1 GiB, e
+// como os registros têm 32 ou 8 bytes nenhum deles atravessa dois segmentos.
+public class ExplorerIndex implements Closeable {
+
+    static final int MAGIC = 0x43534A58;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = 32;
+    static final int MOVE_SIZE = 8;
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long entryCount;
+    private final long moveCount;
+    private final long movesOffset;
+
+    private ExplorerIndex(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        segments = new MappedByteBuffer[(int)((size + SEGMENT_MASK) >> SEGMENT_SHIFT)];
+        for (int i=0; i<segments.length; i++) {
+            long position = (long)i << SEGMENT_SHIFT;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(1L << SEGMENT_SHIFT, size - position));
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (size < HEADER_SIZE || getInt(0) != MAGIC || getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Arquivo de índice inválido");
+        }
+        entryCount = getLong(8);
+        moveCount = getLong(16);
+        movesOffset = HEADER_SIZE + entryCount * ENTRY_SIZE;
+        if (movesOffset + moveCount * MOVE_SIZE != size) {
+            channel.close();
+            throw new IOException("Arquivo de índice truncado");
+        }
+    }
+
+    public static ExplorerIndex open(Path path) throws IOException {
+        return new ExplorerIndex(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public long getPositionCount() {
+        return entryCount;
+    }
+
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    public PositionStats lookup(ChessMatch chessMatch) {
+        return lookup(chessMatch.getPositionKey());
+    }
+
+    // Busca binária sobre as chaves mapeadas; não aloca nada quando a posição
+    // não está no índice. Pode ser chamado de várias threads ao mesmo tempo.
+    public PositionStats lookup(long key) {
+        long low = 0;
+        long high = entryCount - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long entry = HEADER_SIZE + middle * ENTRY_SIZE;
+            long k = getLong(entry);
+            if (k < key) {
+                low = middle + 1;
+            }
+            else if (k > key) {
+                high = middle - 1;
+            }
+            else {
+                return read(middle, entry);
+            }
+        }
+        return null;
+    }
+
+    private PositionStats read(long index, long entry) {
+        long firstMove = getLong(entry + 24);
+        long lastMove = (index + 1 < entryCount) ? getLong(entry + ENTRY_SIZE + 24) : moveCount;
+        int[] moves = new int[(int)(lastMove - firstMove)];
+        int[] moveGames = new int[moves.length];
+        for (int i=0; i<moves.length; i++) {
+            long offset = movesOffset + (firstMove + i) * MOVE_SIZE;
+            moves[i] = getInt(offset);
+            moveGames[i] = getInt(offset + 4);
+        }
+        return new PositionStats(getLong(entry), getInt(entry + 8), getInt(entry + 12), getInt(entry + 16), getInt(entry + 20), moves, moveGames);
+    }
+
+    private long getLong(long offset) {
+        return segments[(int)(offset >>> SEGMENT_SHIFT)].getLong((int)(offset & SEGMENT_MASK));
+    }
+
+    private int getInt(long offset) {
+        return segments[(int)(offset >>> SEGMENT_SHIFT)].getInt((int)(offset & SEGMENT_MASK));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
\ No newline at end of file
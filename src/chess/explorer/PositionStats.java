@@ -0,0 +1,61 @@
+package chess.explorer;
+
+public class PositionStats {
+
+    private final long key;
+    private final int games;
+    private final int whiteWins;
+    private final int draws;
+    private final int blackWins;
+    private final int[] moves;
+    private final int[] moveGames;
+
+    public PositionStats(long key, int games, int whiteWins, int draws, int blackWins, int[] moves, int[] moveGames) {
+        this.key = key;
+        this.games = games;
+        this.whiteWins = whiteWins;
+        this.draws = draws;
+        this.blackWins = blackWins;
+        this.moves = moves;
+        this.moveGames = moveGames;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWhiteWins() {
+        return whiteWins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getBlackWins() {
+        return blackWins;
+    }
+
+    // Lances jogados a partir da posição, no formato de ChessMatch.generateMoves,
+    // do mais jogado para o menos jogado.
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    public int getMoveGames(int index) {
+        return moveGames[index];
+    }
+
+    @Override
+    public String toString() {
+        return games + " partidas (+" + whiteWins + " =" + draws + " -" + blackWins + ")";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,480 @@
+package chess.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.MoveStatus;
+
+// Partidas em andamento que sobrevivem a um reinício. Cada lance, desfazimento,
+// início e fim de partida é gravado no MoveJournal e só é confirmado a quem o
+// pediu depois do fsync. snapshot() grava todas as partidas num arquivo compacto
+// (FEN inicial e lances) e apaga o que o snapshot anterior cobria, mantendo esse
+// anterior e os segmentos seguintes a ele; open() carrega o snapshot mais recente
+// que estiver íntegro e repassa os segmentos seguintes por tryPerformChessMove.
+//
+// No diretório ficam journal-N.log, os segmentos, e snapshot-N.dat, que cobre
+// todos os segmentos anteriores a N.
+public class GameStore implements Closeable {
+
+    private static final int SNAPSHOT_MAGIC = 0x43534A53;
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+
+    private final Path directory;
+    private final boolean force;
+    private final Map<Long, Game> games = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    // Leitura para cada operação de partida, escrita para trocar de segmento num
+    // ponto em que nenhum registro está a meio caminho entre a partida e o diário.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private MoveJournal journal;
+    private long segment;
+    private long previousCommits;
+
+    private long recoveredGames;
+    private long replayedRecords;
+    private long recoveryMillis;
+
+    private static class Game {
+
+        private final String fen;
+        private final ChessMatch chessMatch;
+
+        private Game(String fen, ChessMatch chessMatch) {
+            this.fen = fen;
+            this.chessMatch = chessMatch;
+        }
+    }
+
+    private GameStore(Path directory, boolean force) {
+        this.directory = directory;
+        this.force = force;
+    }
+
+    public static GameStore open(Path directory) throws IOException {
+        return open(directory, true);
+    }
+
+    public static GameStore open(Path directory, boolean force) throws IOException {
+        Files.createDirectories(directory);
+        GameStore store = new GameStore(directory, force);
+        store.recover();
+        return store;
+    }
+
+    public long getRecoveredGames() {
+        return recoveredGames;
+    }
+
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    // Número de fsyncs feitos desde a abertura.
+    public long getCommits() {
+        lock.readLock().lock();
+        try {
+            return previousCommits + journal.getCommits();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Long> getGameIds() {
+        return Collections.unmodifiableSet(games.keySet());
+    }
+
+    // A partida é do GameStore: lances feitos diretamente nela não vão para o diário.
+    public ChessMatch getMatch(long gameId) {
+        return game(gameId).chessMatch;
+    }
+
+    public long newGame() throws IOException {
+        return newGame(null);
+    }
+
+    public long newGame(String fen) throws IOException {
+        Game game = new Game(fen, (fen == null) ? new ChessMatch() : new ChessMatch(fen));
+        long gameId = nextId.getAndIncrement();
+        MoveJournal journal;
+        long sequence;
+        lock.readLock().lock();
+        try {
+            games.put(gameId, game);
+            journal = this.journal;
+            sequence = journal.append(MoveJournal.START, gameId, 0, (fen == null) ? null : fen.getBytes(StandardCharsets.UTF_8));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        journal.awaitDurable(sequence);
+        return gameId;
+    }
+
+    public MoveStatus move(long gameId, ChessPosition source, ChessPosition target, String promotionType) throws IOException {
+        return move(gameId, 0, source, target, promotionType);
+    }
+
+    // Lance no formato de ChessMatch.generateMoves.
+    public MoveStatus move(long gameId, int move) throws IOException {
+        return move(gameId, move, null, null, null);
+    }
+
+    // O registro é acrescentado sob o monitor da partida, para que a ordem no
+    // diário seja a dos lances; a espera pelo fsync fica fora dele.
+    private MoveStatus move(long gameId, int move, ChessPosition source, ChessPosition target, String promotionType) throws IOException {
+        Game game = game(gameId);
+        MoveJournal journal;
+        long sequence;
+        lock.readLock().lock();
+        try {
+            synchronized (game) {
+                checkLive(gameId, game);
+                MoveStatus status = (source == null) ? game.chessMatch.tryPerformChessMove(move)
+                        : game.chessMatch.tryPerformChessMove(source, target, promotionType);
+                if (status != MoveStatus.OK) {
+                    return status;
+                }
+                journal = this.journal;
+                sequence = journal.append(MoveJournal.MOVE, gameId, game.chessMatch.getLastMove(), null);
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        journal.awaitDurable(sequence);
+        return MoveStatus.OK;
+    }
+
+    public void undo(long gameId) throws IOException {
+        Game game = game(gameId);
+        MoveJournal journal;
+        long sequence;
+        lock.readLock().lock();
+        try {
+            synchronized (game) {
+                checkLive(gameId, game);
+                game.chessMatch.undo();
+                journal = this.journal;
+                sequence = journal.append(MoveJournal.UNDO, gameId, 0, null);
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    // Encerra a partida: ela sai da memória e não é mais recuperada.
+    public void finish(long gameId) throws IOException {
+        Game game = game(gameId);
+        MoveJournal journal;
+        long sequence;
+        lock.readLock().lock();
+        try {
+            synchronized (game) {
+                checkLive(gameId, game);
+                games.remove(gameId);
+                journal = this.journal;
+                sequence = journal.append(MoveJournal.END, gameId, 0, null);
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    // Sob o monitor da partida: nada pode ir ao diário depois do END dela.
+    private void checkLive(long gameId, Game game) {
+        if (games.get(gameId) != game) {
+            throw new ChessException("Partida inexistente: " + gameId);
+        }
+    }
+
+    private Game game(long gameId) {
+        Game game = games.get(gameId);
+        if (game == null) {
+            throw new ChessException("Partida inexistente: " + gameId);
+        }
+        return game;
+    }
+
+    // Troca de segmento e copia as partidas com as operações suspensas (só o tempo
+    // de copiar os lances), grava o snapshot fora da trava e apaga o que ele cobre.
+    public synchronized void snapshot() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        List<String> fens = new ArrayList<>();
+        List<int[]> moves = new ArrayList<>();
+        List<Integer> plies = new ArrayList<>();
+        long covered;
+        long next;
+        lock.writeLock().lock();
+        try {
+            rotate();
+            covered = segment;
+            next = nextId.get();
+            for (Map.Entry<Long, Game> entry : games.entrySet()) {
+                Game game = entry.getValue();
+                synchronized (game) {
+                    ids.add(entry.getKey());
+                    fens.add(game.fen);
+                    moves.add(game.chessMatch.getGameMoves());
+                    plies.add(game.chessMatch.getPly());
+                }
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + covered + SNAPSHOT_SUFFIX + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (OutputStream file = Files.newOutputStream(temporary)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(next);
+            out.writeInt(ids.size());
+            for (int i=0; i<ids.size(); i++) {
+                out.writeLong(ids.get(i));
+                out.writeUTF((fens.get(i) == null) ? "" : fens.get(i));
+                out.writeInt(plies.get(i));
+                int[] gameMoves = moves.get(i);
+                out.writeInt(gameMoves.length);
+                for (int move : gameMoves) {
+                    out.writeInt(move);
+                }
+            }
+            out.flush();
+            new DataOutputStream(file).writeInt((int)crc.getValue());
+        }
+        if (force) {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_PREFIX + covered + SNAPSHOT_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+
+        // O snapshot anterior e os segmentos desde ele ficam até o próximo, para
+        // que a recuperação tenha a que voltar se este estiver corrompido.
+        long previous = 0;
+        for (long n : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (n < covered) {
+                previous = Math.max(previous, n);
+            }
+        }
+        for (long n : list(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            if (n < previous) {
+                Files.deleteIfExists(directory.resolve(JOURNAL_PREFIX + n + JOURNAL_SUFFIX));
+            }
+        }
+        for (long n : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (n < previous) {
+                Files.deleteIfExists(directory.resolve(SNAPSHOT_PREFIX + n + SNAPSHOT_SUFFIX));
+            }
+        }
+    }
+
+    private void rotate() throws IOException {
+        previousCommits += journal.getCommits();
+        journal.close();
+        segment++;
+        journal = new MoveJournal(directory.resolve(JOURNAL_PREFIX + segment + JOURNAL_SUFFIX), force);
+        forceDirectory();
+    }
+
+    // O force de um arquivo não grava a entrada dele no diretório: sem isto, uma
+    // queda de energia pode perder um segmento novo ou o rename do snapshot. No
+    // Windows diretórios não podem ser abertos, e lá não há o que fazer.
+    private void forceDirectory() throws IOException {
+        if (!force) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        catch (AccessDeniedException e) {
+            return;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            journal.close();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        List<Long> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long covered = 0;
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            if (loadSnapshot(directory.resolve(SNAPSHOT_PREFIX + snapshots.get(i) + SNAPSHOT_SUFFIX))) {
+                covered = snapshots.get(i);
+                break;
+            }
+        }
+        // Os segmentos a repassar começam exatamente no que o snapshot carregado
+        // cobre; se algum faltar (todos os snapshots corrompidos, por exemplo), as
+        // partidas não podem ser reconstruídas e é melhor não abrir o diretório.
+        List<Long> segments = list(JOURNAL_PREFIX, JOURNAL_SUFFIX);
+        long expected = covered;
+        for (long n : segments) {
+            if (n < covered) {
+                continue;
+            }
+            if (n != expected) {
+                throw new IOException("Diário incompleto em " + directory + ": falta o segmento " + expected);
+            }
+            expected++;
+        }
+        if (expected == covered && !snapshots.isEmpty()) {
+            throw new IOException("Diário incompleto em " + directory + ": falta o segmento " + expected);
+        }
+        for (long n : segments) {
+            if (n >= covered) {
+                replayedRecords += MoveJournal.read(directory.resolve(JOURNAL_PREFIX + n + JOURNAL_SUFFIX), this::replay);
+            }
+        }
+        recoveredGames = games.size();
+        segment = Math.max(covered, segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1);
+        journal = new MoveJournal(directory.resolve(JOURNAL_PREFIX + segment + JOURNAL_SUFFIX), force);
+        forceDirectory();
+        recoveryMillis = (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    // Um snapshot com CRC errado (gravação interrompida antes do rename não deixa
+    // nenhum, mas o disco pode corrompê-lo) é ignorado em favor do anterior, que
+    // snapshot() mantém com os seus segmentos.
+    private boolean loadSnapshot(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        Map<Long, Game> loaded = new ConcurrentHashMap<>();
+        long next;
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                return false;
+            }
+            next = in.readLong();
+            int count = in.readInt();
+            for (int i=0; i<count; i++) {
+                long gameId = in.readLong();
+                String fen = in.readUTF();
+                int ply = in.readInt();
+                int[] moves = new int[in.readInt()];
+                for (int j=0; j<moves.length; j++) {
+                    moves[j] = in.readInt();
+                }
+                loaded.put(gameId, restore(fen.isEmpty() ? null : fen, moves, ply));
+            }
+            int expected = (int)crc.getValue();
+            if (new DataInputStream(file).readInt() != expected) {
+                return false;
+            }
+        }
+        catch (EOFException | ChessException | IllegalStateException e) {
+            return false;
+        }
+        games.putAll(loaded);
+        nextId.set(next);
+        return true;
+    }
+
+    // Os lances passam por tryPerformChessMove, e não por playMove, para voltarem
+    // ao histórico da partida: os desfeitos depois de ply ainda podem ser refeitos.
+    private static Game restore(String fen, int[] moves, int ply) {
+        ChessMatch chessMatch = (fen == null) ? new ChessMatch() : new ChessMatch(fen);
+        for (int i=0; i<moves.length; i++) {
+            if (chessMatch.tryPerformChessMove(moves[i]) != MoveStatus.OK) {
+                throw new IllegalStateException("Lance inválido no snapshot");
+            }
+        }
+        while (chessMatch.getPly() > ply) {
+            chessMatch.undo();
+        }
+        return new Game(fen, chessMatch);
+    }
+
+    private void replay(int type, long gameId, int value, byte[] data) throws IOException {
+        if (type == MoveJournal.START) {
+            String fen = (data.length == 0) ? null : new String(data, StandardCharsets.UTF_8);
+            games.put(gameId, new Game(fen, (fen == null) ? new ChessMatch() : new ChessMatch(fen)));
+            nextId.accumulateAndGet(gameId + 1, Math::max);
+            return;
+        }
+        Game game = games.get(gameId);
+        if (game == null) {
+            throw new IOException("Diário cita partida inexistente: " + gameId);
+        }
+        if (type == MoveJournal.MOVE) {
+            MoveStatus status = game.chessMatch.tryPerformChessMove(value);
+            if (status != MoveStatus.OK) {
+                throw new IOException("Lance recusado ao refazer a partida " + gameId + ": " + status.getMessage());
+            }
+        }
+        else if (type == MoveJournal.UNDO) {
+            game.chessMatch.undo();
+        }
+        else if (type == MoveJournal.END) {
+            games.remove(gameId);
+        }
+    }
+
+    private List<Long> list(String prefix, String suffix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                }
+                catch (NumberFormatException e) {
+                    // outro arquivo com o mesmo formato de nome
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,243 @@
+package chess.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Segmento do diário de lances, só de acréscimo. Cada registro é
+//
+//   int tamanho do corpo, int CRC32C do corpo,
+//   corpo: byte tipo, long partida, int valor (o lance em MOVE), bytes extras (a FEN em START)
+//
+// em big-endian. Quem acrescenta recebe a sequência do registro (o fim dele no
+// arquivo) e espera por ela em awaitDurable; uma única thread grava e faz fsync
+// de tudo o que se acumulou enquanto o fsync anterior acontecia, então muitas
+// partidas simultâneas dividem o custo de cada fsync (group commit).
+public class MoveJournal implements Closeable {
+
+    public static final int START = 1;
+    public static final int MOVE = 2;
+    public static final int UNDO = 3;
+    public static final int END = 4;
+
+    private static final int HEADER = 8;
+    private static final int BODY = 13;
+    private static final int MAX_BODY = 1 << 16;
+
+    // Recebe os registros íntegros de um segmento, em ordem.
+    public interface Handler {
+
+        void record(int type, long gameId, int value, byte[] data) throws IOException;
+    }
+
+    private final FileChannel channel;
+    private final boolean force;
+    private final Thread flusher;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer writing = ByteBuffer.allocate(1 << 16);
+    private long appended;
+    private long durable;
+    private long commits;
+    private IOException failure;
+    private boolean closed;
+
+    // Com force falso não há fsync: os registros sobrevivem a uma queda do processo,
+    // mas não do sistema.
+    public MoveJournal(Path path, boolean force) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.force = force;
+        this.appended = channel.size();
+        this.durable = appended;
+        flusher = new Thread(this::flushLoop, "move-journal-" + path.getFileName());
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public synchronized long append(int type, long gameId, int value, byte[] data) throws IOException {
+        if (closed) {
+            throw new IOException("Diário fechado");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        int length = BODY + ((data == null) ? 0 : data.length);
+        if (length > MAX_BODY) {
+            throw new IllegalArgumentException("Registro grande demais: " + length + " bytes");
+        }
+        if (pending.remaining() < HEADER + length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * pending.capacity(), pending.position() + HEADER + length));
+            pending.flip();
+            pending = larger.put(pending);
+        }
+        int start = pending.position();
+        pending.putInt(length).putInt(0).put((byte)type).putLong(gameId).putInt(value);
+        if (data != null) {
+            pending.put(data);
+        }
+        crc.reset();
+        crc.update(pending.array(), start + HEADER, length);
+        pending.putInt(start + 4, (int)crc.getValue());
+        appended += HEADER + length;
+        notifyAll();
+        return appended;
+    }
+
+    public synchronized void awaitDurable(long sequence) throws IOException {
+        while (durable < sequence && failure == null) {
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Espera pelo diário interrompida");
+            }
+        }
+        if (durable < sequence) {
+            throw failure;
+        }
+    }
+
+    public synchronized long getCommits() {
+        return commits;
+    }
+
+    public synchronized long getSize() {
+        return appended;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            synchronized (this) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        wait();
+                    }
+                    catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer swap = writing;
+                writing = pending;
+                pending = swap;
+                target = appended;
+            }
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                if (force) {
+                    channel.force(false);
+                }
+                writing.clear();
+            }
+            catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                durable = target;
+                commits++;
+                notifyAll();
+            }
+        }
+    }
+
+    // Grava o que falta e fecha; appends posteriores falham.
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // Lê os registros do segmento até o fim ou até o primeiro registro truncado ou
+    // corrompido, que só pode ser a cauda de uma gravação interrompida, e corta o
+    // arquivo ali. Devolve o número de registros lidos.
+    public static long read(Path path, Handler handler) throws IOException {
+        long records = 0;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            CRC32C crc = new CRC32C();
+            long valid = 0;
+            buffer.limit(0);
+            while (true) {
+                if (buffer.remaining() < HEADER && !fill(in, buffer, HEADER)) {
+                    break;
+                }
+                int length = buffer.getInt(buffer.position());
+                if (length < BODY || length > MAX_BODY) {
+                    break;
+                }
+                if (buffer.remaining() < HEADER + length) {
+                    if (buffer.capacity() < HEADER + length) {
+                        ByteBuffer larger = ByteBuffer.allocate(HEADER + length);
+                        larger.put(buffer).flip();
+                        buffer = larger;
+                    }
+                    if (!fill(in, buffer, HEADER + length)) {
+                        break;
+                    }
+                }
+                int start = buffer.position();
+                crc.reset();
+                crc.update(buffer.array(), start + HEADER, length);
+                if ((int)crc.getValue() != buffer.getInt(start + 4)) {
+                    break;
+                }
+                buffer.position(start + HEADER);
+                int type = buffer.get();
+                long gameId = buffer.getLong();
+                int value = buffer.getInt();
+                byte[] data = new byte[length - BODY];
+                buffer.get(data);
+                handler.record(type, gameId, value, data);
+                valid += HEADER + length;
+                records++;
+            }
+            if (valid < in.size()) {
+                in.truncate(valid);
+                in.force(false);
+            }
+        }
+        return records;
+    }
+
+    private static boolean fill(FileChannel in, ByteBuffer buffer, int needed) throws IOException {
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (in.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
\ No newline at end of file
@@ -2,14 +2,18 @@ package chess.pieces;
 
 import board.Board;
 import board.Position;
+import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
 import board.Piece;
 
 public class King extends ChessPiece {
 
-    public King(Board board, Color color) {
+    private ChessMatch chessMatch;
+
+    public King(Board board, Color color, ChessMatch chessMatch) {
         super(board, color);
+        this.chessMatch = chessMatch;
     }
 
     @Override
@@ -17,12 +21,15 @@ public class King extends ChessPiece {
         return "K";
     }
 
-    private boolean canMove(Position position) {
-        ChessPiece p = (ChessPiece)getBoard().piece(position);
-        return p == null || isThereOpponentPiece(position);
+    @Override
+    public int getValue() {
+        return 20000;
     }
-    
+
     private boolean testRookCastling(Position position) {
+        if (!getBoard().positionExists(position)) {
+            return false;
+        }
         Piece p = getBoard().piece(position);
         return p != null && p instanceof Rook && ((ChessPiece)p).getColor() == getColor() && ((ChessPiece)p).isFirstMove();
     }
@@ -31,56 +38,19 @@ public class King extends ChessPiece {
     public boolean[][] possibleMoves() {
         boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
         
-        Position p = new Position(0, 0);
-
-        p.setValues(position.getRow() - 1, position.getColumn());
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() + 1, position.getColumn());
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow(), position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow(), position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() - 1, position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-        
-        p.setValues(position.getRow() - 1, position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() + 1, position.getColumn() - 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() + 1, position.getColumn() + 1);
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
-        }
+        markLeaps(mat, getBoard().getMoveTables().kingMoves(getSquare()));
 
-        if (isFirstMove()) {
+        // Não se roca em xeque nem passando por casa atacada; a casa de destino é
+        // verificada como em qualquer lance, pelo xeque depois de jogá-lo.
+        Color opponent = (getColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        if (isFirstMove() && !chessMatch.isAttacked(position.getRow(), position.getColumn(), opponent)) {
 
             Position posR1 = new Position(position.getRow(), position.getColumn() + 3);
             if (testRookCastling(posR1)) {
                 Position p1 = new Position(position.getRow(), position.getColumn() + 1); 
                 Position p2 = new Position(position.getRow(), position.getColumn() + 2); 
                 
-                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
+                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && !chessMatch.isAttacked(p1.getRow(), p1.getColumn(), opponent)) {
                     mat[position.getRow()][position.getColumn() + 2] = true; 
                 }
             }
@@ -91,7 +61,8 @@ public class King extends ChessPiece {
                 Position p2 = new Position(position.getRow(), position.getColumn() - 2); 
                 Position p3 = new Position(position.getRow(), position.getColumn() - 3); 
                 
-                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null) {
+                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null
+                        && !chessMatch.isAttacked(p1.getRow(), p1.getColumn(), opponent)) {
                     mat[position.getRow()][position.getColumn() - 2] = true; 
                 }
             }
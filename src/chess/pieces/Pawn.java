@@ -20,6 +20,11 @@ public class Pawn extends ChessPiece {
         return "P";
     }
 
+    @Override
+    public int getValue() {
+        return 100;
+    }
+
     private boolean testOpponentEnPassant(Position position) {
         ChessPiece p = (ChessPiece)getBoard().piece(position);
         return p != null && p.getColor() != getColor() && p == chessMatch.getEnPassantVulnerable();
@@ -53,7 +58,7 @@ public class Pawn extends ChessPiece {
                 mat[p.getRow()][p.getColumn()] = true;
             }
 
-            if (position.getRow() == 3) { 
+            if (chessMatch.getEnPassantVulnerable() != null) { 
                 Position left = new Position(position.getRow(), position.getColumn() - 1);
                 if (getBoard().positionExists(left) && testOpponentEnPassant(left)) {
                     mat[left.getRow() - 1][left.getColumn()] = true; 
@@ -86,7 +91,7 @@ public class Pawn extends ChessPiece {
                 mat[p.getRow()][p.getColumn()] = true;
             }
 
-            if (position.getRow() == 4) { 
+            if (chessMatch.getEnPassantVulnerable() != null) { 
                 Position left = new Position(position.getRow(), position.getColumn() - 1);
                 if (getBoard().positionExists(left) && testOpponentEnPassant(left)) {
                     mat[left.getRow() + 1][left.getColumn()] = true; 
@@ -0,0 +1,45 @@
+package chess.puzzle;
+
+public class MateResult {
+
+    public enum Status { PROVEN, DISPROVEN, UNKNOWN }
+
+    private final Status status;
+    private final int mateIn;
+    private final int[] pv;
+    private final long nodes;
+    private final long timeMillis;
+
+    public MateResult(Status status, int mateIn, int[] pv, long nodes, long timeMillis) {
+        this.status = status;
+        this.mateIn = mateIn;
+        this.pv = pv;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isProven() {
+        return status == Status.PROVEN;
+    }
+
+    // Número de lances do atacante até o mate na linha principal provada.
+    public int getMateIn() {
+        return mateIn;
+    }
+
+    public int[] getPv() {
+        return pv;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
\ No newline at end of file
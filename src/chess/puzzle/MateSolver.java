@@ -0,0 +1,285 @@
+package chess.puzzle;
+
+import java.util.Arrays;
+import chess.ChessMatch;
+
+// Busca por números de prova (proof-number search) de mates forçados em até N
+// lances do jogador da vez. A árvore fica em memória, limitada por memoryLimit
+// nós; subárvores refutadas são descartadas assim que o nó é refutado, e num nó
+// provado do atacante só o lance que prova é mantido, para reconstruir a linha.
+//
+// Nos nós do atacante (OU) o número de prova é o menor entre os filhos e o de
+// refutação a soma; nos do defensor (E), o contrário. A cada iteração desce-se
+// pelo nó "mais provador", jogando os lances no ChessMatch, expande-se a folha
+// e atualizam-se os números no caminho de volta, desfazendo os lances.
+public class MateSolver {
+
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    private static final int MAX_MOVES = 256;
+
+    private final ChessMatch chessMatch;
+    private boolean checksOnly = true;
+    private long nodeLimit = 1_000_000;
+    private long memoryLimit = 2_000_000;
+
+    private int maxPlies;
+    private int[][] moves;
+    private long expansions;
+    private long treeSize;
+
+    public MateSolver(ChessMatch chessMatch) {
+        this.chessMatch = chessMatch;
+    }
+
+    // Se verdadeiro, o atacante só considera lances que dão xeque. É bem mais
+    // rápido, mas não encontra mates cujo lance-chave é silencioso.
+    public void setChecksOnly(boolean checksOnly) {
+        this.checksOnly = checksOnly;
+    }
+
+    // Máximo de expansões de nós antes de desistir.
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    // Máximo de nós mantidos na árvore ao mesmo tempo.
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    // Procura o mate mais curto de 1 até maxMoves lances, aprofundando um lance
+    // por vez; o primeiro N provado é, portanto, a distância exata até o mate.
+    public MateResult solveShortest(int maxMoves) {
+        long start = System.nanoTime();
+        long nodes = 0;
+        MateResult result = null;
+        for (int n=1; n<=maxMoves; n++) {
+            result = solve(n);
+            nodes += result.getNodes();
+            if (result.getStatus() != MateResult.Status.DISPROVEN) {
+                break;
+            }
+        }
+        return new MateResult(result.getStatus(), result.getMateIn(), result.getPv(), nodes, (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    public MateResult solve(int mateIn) {
+        long start = System.nanoTime();
+        maxPlies = 2 * mateIn - 1;
+        moves = new int[maxPlies + 1][MAX_MOVES];
+        expansions = 0;
+        treeSize = 1;
+
+        Node root = new Node(0, true, null);
+        root.pn = 1;
+        root.dn = 1;
+        while (root.pn != 0 && root.dn != 0 && expansions < nodeLimit && treeSize < memoryLimit) {
+            Node node = root;
+            int ply = 0;
+            while (node.children != null) {
+                node = select(node);
+                chessMatch.playMove(node.move);
+                ply++;
+            }
+            expand(node, ply);
+            while (true) {
+                update(node);
+                if (node.parent == null) {
+                    break;
+                }
+                chessMatch.unmakeMove();
+                node = node.parent;
+            }
+        }
+
+        long time = (System.nanoTime() - start) / 1_000_000L;
+        if (root.pn == 0) {
+            int plies = matePlies(root);
+            int[] pv = new int[plies];
+            Node node = root;
+            for (int i=0; i<plies; i++) {
+                node = bestChild(node);
+                pv[i] = node.move;
+            }
+            return new MateResult(MateResult.Status.PROVEN, (plies + 1) / 2, pv, expansions, time);
+        }
+        MateResult.Status status = (root.dn == 0) ? MateResult.Status.DISPROVEN : MateResult.Status.UNKNOWN;
+        return new MateResult(status, 0, new int[0], expansions, time);
+    }
+
+    private Node select(Node node) {
+        Node best = null;
+        for (Node child : node.children) {
+            if (best == null || (node.attacker ? child.pn < best.pn : child.dn < best.dn)) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private void expand(Node node, int ply) {
+        expansions++;
+        int[] list = moves[ply];
+        int count = chessMatch.generateMoves(list);
+        Node[] children = new Node[count];
+        int size = 0;
+        for (int i=0; i<count; i++) {
+            if (!chessMatch.playMove(list[i])) {
+                continue;
+            }
+            if (node.attacker && checksOnly && !chessMatch.getCheck()) {
+                chessMatch.unmakeMove();
+                continue;
+            }
+            Node child = new Node(list[i], !node.attacker, node);
+            evaluate(child, ply + 1);
+            chessMatch.unmakeMove();
+            children[size++] = child;
+        }
+        treeSize += size;
+        node.children = (size == count) ? children : Arrays.copyOf(children, size);
+        if (size == 0) {
+            // Sem lances (ou sem xeques) o atacante não pode dar mate; o defensor
+            // sem lances já foi resolvido em evaluate.
+            node.children = null;
+            node.pn = INFINITY;
+            node.dn = 0;
+        }
+    }
+
+    // Valores iniciais de um nó recém-criado, com o lance dele já jogado. Para o
+    // defensor, o número de prova começa pela quantidade de respostas legais.
+    private void evaluate(Node node, int ply) {
+        if (ply > 0 && (chessMatch.getHalfMoveClock() >= 100 || chessMatch.isRepetition())) {
+            node.pn = INFINITY;
+            node.dn = 0;
+            return;
+        }
+        if (node.attacker) {
+            node.pn = 1;
+            node.dn = 1;
+            return;
+        }
+        int legal = countLegalMoves(ply);
+        if (legal == 0) {
+            node.pn = chessMatch.getCheck() ? 0 : INFINITY;
+            node.dn = chessMatch.getCheck() ? INFINITY : 0;
+        }
+        else if (ply >= maxPlies) {
+            node.pn = INFINITY;
+            node.dn = 0;
+        }
+        else {
+            node.pn = legal;
+            node.dn = 1;
+        }
+    }
+
+    private int countLegalMoves(int ply) {
+        int[] list = moves[Math.min(ply, maxPlies)];
+        int count = chessMatch.generateMoves(list);
+        int legal = 0;
+        for (int i=0; i<count; i++) {
+            if (chessMatch.playMove(list[i])) {
+                chessMatch.unmakeMove();
+                legal++;
+            }
+        }
+        return legal;
+    }
+
+    private void update(Node node) {
+        if (node.children == null) {
+            return;
+        }
+        int min = INFINITY;
+        int sum = 0;
+        for (Node child : node.children) {
+            int a = node.attacker ? child.pn : child.dn;
+            int b = node.attacker ? child.dn : child.pn;
+            min = Math.min(min, a);
+            sum = Math.min(INFINITY, sum + b);
+        }
+        if (node.attacker) {
+            node.pn = min;
+            node.dn = sum;
+        }
+        else {
+            node.pn = sum;
+            node.dn = min;
+        }
+
+        if (node.dn == 0) {
+            release(node);
+        }
+        else if (node.pn == 0 && node.attacker) {
+            Node proof = bestChild(node);
+            for (Node child : node.children) {
+                if (child != proof) {
+                    release(child);
+                    treeSize--;
+                }
+            }
+            node.children = new Node[] {proof};
+        }
+    }
+
+    private void release(Node node) {
+        if (node.children != null) {
+            for (Node child : node.children) {
+                release(child);
+            }
+            treeSize -= node.children.length;
+            node.children = null;
+        }
+    }
+
+    // Meios-lances até o mate na subárvore provada: o atacante escolhe o mais
+    // curto e o defensor o mais longo.
+    private int matePlies(Node node) {
+        if (node.children == null) {
+            return 0;
+        }
+        int best = node.attacker ? Integer.MAX_VALUE : 0;
+        for (Node child : node.children) {
+            if (child.pn != 0) {
+                continue;
+            }
+            int plies = matePlies(child) + 1;
+            best = node.attacker ? Math.min(best, plies) : Math.max(best, plies);
+        }
+        return best;
+    }
+
+    private Node bestChild(Node node) {
+        Node best = null;
+        int bestPlies = 0;
+        for (Node child : node.children) {
+            if (child.pn != 0) {
+                continue;
+            }
+            int plies = matePlies(child);
+            if (best == null || (node.attacker ? plies < bestPlies : plies > bestPlies)) {
+                best = child;
+                bestPlies = plies;
+            }
+        }
+        return best;
+    }
+
+    private static class Node {
+
+        final int move;
+        final boolean attacker;
+        final Node parent;
+        int pn;
+        int dn;
+        Node[] children;
+
+        Node(int move, boolean attacker, Node parent) {
+            this.move = move;
+            this.attacker = attacker;
+            this.parent = parent;
+        }
+    }
+}
\ No newline at end of file
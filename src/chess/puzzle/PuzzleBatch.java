@@ -0,0 +1,132 @@
+package chess.puzzle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import chess.ChessException;
+import chess.ChessMatch;
+
+// Verifica um arquivo de problemas de mate, um por linha:
+//
+//   <FEN>;<N>[;<id>]
+//
+// Cada problema é resolvido numa thread do pool com seu próprio ChessMatch e
+// MateSolver. Um problema está correto se houver mate em N e não em menos lances.
+public class PuzzleBatch {
+
+    public static class Puzzle {
+
+        private final String id;
+        private final String fen;
+        private final int mateIn;
+        private MateResult result;
+        private String error;
+
+        Puzzle(String id, String fen, int mateIn) {
+            this.id = id;
+            this.fen = fen;
+            this.mateIn = mateIn;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getFen() {
+            return fen;
+        }
+
+        public int getMateIn() {
+            return mateIn;
+        }
+
+        public MateResult getResult() {
+            return result;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSolved() {
+            return result != null && result.isProven() && result.getMateIn() == mateIn;
+        }
+    }
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean checksOnly = true;
+    private long nodeLimit = 1_000_000;
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setChecksOnly(boolean checksOnly) {
+        this.checksOnly = checksOnly;
+    }
+
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public static List<Puzzle> read(Path path) throws IOException {
+        List<Puzzle> puzzles = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(";");
+            if (fields.length < 2) {
+                throw new IOException("Linha " + lineNumber + " inválida: " + line);
+            }
+            String id = (fields.length > 2) ? fields[2].trim() : String.valueOf(lineNumber);
+            try {
+                puzzles.add(new Puzzle(id, fields[0].trim(), Integer.parseInt(fields[1].trim())));
+            }
+            catch (NumberFormatException e) {
+                throw new IOException("Linha " + lineNumber + " inválida: " + line);
+            }
+        }
+        return puzzles;
+    }
+
+    public void solve(List<Puzzle> puzzles) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Puzzle puzzle : puzzles) {
+                futures.add(executor.submit(() -> solve(puzzle)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void solve(Puzzle puzzle) {
+        try {
+            MateSolver solver = new MateSolver(new ChessMatch(puzzle.fen));
+            solver.setChecksOnly(checksOnly);
+            solver.setNodeLimit(nodeLimit);
+            puzzle.result = solver.solveShortest(puzzle.mateIn);
+        }
+        catch (ChessException | IllegalStateException | NumberFormatException e) {
+            puzzle.error = e.getMessage();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package chess.service;
+
+import java.util.List;
+import chess.engine.SearchResult;
+
+// Resultado de uma análise, imutável para poder ser dividido entre os pedidos
+// agrupados e guardado no cache. A variante principal vem em notação UCI.
+public class Analysis {
+
+    private final String fen;
+    private final SearchResult result;
+    private final List<String> pv;
+
+    Analysis(String fen, SearchResult result, List<String> pv) {
+        this.fen = fen;
+        this.result = result;
+        this.pv = List.copyOf(pv);
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    public SearchResult getResult() {
+        return result;
+    }
+
+    public List<String> getPv() {
+        return pv;
+    }
+
+    // Lance escolhido, ou "0000" quando não há lance legal.
+    public String getBestMove() {
+        return pv.isEmpty() ? "0000" : pv.get(0);
+    }
+}
\ No newline at end of file
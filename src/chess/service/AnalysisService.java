@@ -0,0 +1,159 @@
+package chess.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+
+// Serviço de análise para muitos clientes pedindo as mesmas posições. Cada
+// pedido é identificado pela FEN normalizada e pelos limites (profundidade, nós,
+// tempo); um pedido repetido é atendido pelo cache, e pedidos iguais que chegam
+// enquanto a análise está em curso esperam por ela em vez de começar outra. As
+// análises rodam num pool de tamanho fixo, cada uma com seu ChessMatch e Search.
+public class AnalysisService implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+    private final ResultCache<String, Analysis> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Analysis>> inFlight = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong computed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public AnalysisService(int threads, int cacheSize, long ttlMillis) {
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cache = new ResultCache<>(cacheSize, ttlMillis);
+    }
+
+    // Sem profundidade, nós nem tempo em limits a análise não teria fim: recusa.
+    // Uma FEN inválida falha aqui mesmo, com ChessException.
+    public CompletableFuture<Analysis> analyze(String fen, SearchLimits limits) {
+        long start = System.nanoTime();
+        if (limits.getDepth() >= Search.MAX_DEPTH && limits.getNodes() == Long.MAX_VALUE && limits.getMoveTime() <= 0) {
+            throw new ChessException("Análise sem limite de profundidade, nós ou tempo");
+        }
+        String normalized = new ChessMatch(fen).getFen();
+        requests.incrementAndGet();
+        String key = normalized + " d" + limits.getDepth() + " n" + limits.getNodes() + " t" + limits.getMoveTime();
+
+        CompletableFuture<Analysis> future = cachedOrInFlight(key);
+        if (future == null) {
+            CompletableFuture<Analysis> created = new CompletableFuture<>();
+            future = inFlight.putIfAbsent(key, created);
+            if (future == null) {
+                future = created;
+                SearchLimits copy = new SearchLimits();
+                copy.setDepth(limits.getDepth());
+                copy.setNodes(limits.getNodes());
+                copy.setMoveTime(limits.getMoveTime());
+                executor.execute(() -> compute(key, normalized, copy, created));
+            }
+            else {
+                coalesced.incrementAndGet();
+            }
+        }
+        return future.whenComplete((analysis, failure) -> latency.record(System.nanoTime() - start));
+    }
+
+    // Olha inFlight antes do cache e compute faz o contrário (grava no cache e
+    // depois tira de inFlight), para que um pedido que chega no fim de uma
+    // análise encontre o resultado num dos dois.
+    private CompletableFuture<Analysis> cachedOrInFlight(String key) {
+        CompletableFuture<Analysis> future = inFlight.get(key);
+        if (future != null) {
+            coalesced.incrementAndGet();
+            return future;
+        }
+        Analysis analysis = cache.get(key);
+        return (analysis == null) ? null : CompletableFuture.completedFuture(analysis);
+    }
+
+    private void compute(String key, String fen, SearchLimits limits, CompletableFuture<Analysis> future) {
+        try {
+            ChessMatch chessMatch = new ChessMatch(fen);
+            SearchResult result = new Search(chessMatch).search(limits, null);
+            List<String> pv = new ArrayList<>();
+            for (int move : result.getPv()) {
+                pv.add(chessMatch.moveToString(move));
+                chessMatch.playMove(move);
+            }
+            Analysis analysis = new Analysis(fen, result, pv);
+            computed.incrementAndGet();
+            cache.put(key, analysis);
+            inFlight.remove(key);
+            future.complete(analysis);
+        }
+        catch (RuntimeException e) {
+            failures.incrementAndGet();
+            inFlight.remove(key);
+            future.completeExceptionally(e);
+        }
+    }
+
+    // Análises esperando uma thread livre.
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveAnalyses() {
+        return executor.getActiveCount();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getCacheHits() {
+        return cache.getHits();
+    }
+
+    // Fração dos pedidos atendidos pelo cache.
+    public double getHitRate() {
+        long total = requests.get();
+        return (total == 0) ? 0 : (double)cache.getHits() / total;
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getComputed() {
+        return computed.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public long getCacheEvictions() {
+        return cache.getEvictions();
+    }
+
+    // Latência de cada pedido, da chegada à resposta, com acertos do cache incluídos.
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package chess.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Histograma de latências em microssegundos com 8 faixas por potência de 2 (erro
+// relativo de até 12,5%), gravado sem travas por várias threads. Cobre até umas
+// 9 horas; o que passar disso cai na última faixa.
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 32;
+
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_EXPONENT + 1) * SUB_BUCKETS);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(0, nanos / 1000)));
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (int i=0; i<counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // Limite superior, em microssegundos, da faixa em que cai o percentil p (0 a 100).
+    public long percentile(double p) {
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i=0; i<snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(total * p / 100.0));
+        long seen = 0;
+        for (int i=0; i<snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    public void reset() {
+        for (int i=0; i<counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int)micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS + 1;
+        if (exponent > MAX_EXPONENT) {
+            return (MAX_EXPONENT + 1) * SUB_BUCKETS - 1;
+        }
+        return exponent * SUB_BUCKETS + (int)((micros >> (exponent - 1)) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        if (exponent == 0) {
+            return sub;
+        }
+        return ((long)(SUB_BUCKETS + sub + 1) << (exponent - 1)) - 1;
+    }
+}
\ No newline at end of file
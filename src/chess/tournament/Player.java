@@ -0,0 +1,44 @@
+package chess.tournament;
+
+import java.util.function.Supplier;
+import chess.engine.Evaluator;
+import chess.engine.Search;
+
+// Uma configuração do motor: cada partida cria seu próprio Evaluator pelo
+// fornecedor, já que avaliadores podem guardar estado entre chamadas.
+public class Player {
+
+    private final String name;
+    private final Supplier<Evaluator> evaluator;
+    private int depth = Search.MAX_DEPTH;
+    private long nodes = Long.MAX_VALUE;
+
+    public Player(String name, Supplier<Evaluator> evaluator) {
+        this.name = name;
+        this.evaluator = evaluator;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Evaluator newEvaluator() {
+        return evaluator.get();
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+}
\ No newline at end of file
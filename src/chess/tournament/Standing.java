@@ -0,0 +1,126 @@
+package chess.tournament;
+
+// Placar do jogador A contra o B num instante do torneio, com a estimativa de
+// Elo e o teste sequencial (SPRT) das hipóteses elo0 contra elo1.
+public class Standing {
+
+    public enum Decision { CONTINUE, ACCEPT_H0, ACCEPT_H1 }
+
+    private final int wins;
+    private final int draws;
+    private final int losses;
+    private final double llr;
+    private final double lowerBound;
+    private final double upperBound;
+    private final long elapsedMillis;
+
+    Standing(int wins, int draws, int losses, double elo0, double elo1, double alpha, double beta, long elapsedMillis) {
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+        this.llr = llr(elo0, elo1);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getGames() {
+        return wins + draws + losses;
+    }
+
+    public double getScore() {
+        return (getGames() == 0) ? 0.5 : (wins + draws * 0.5) / getGames();
+    }
+
+    public double getElo() {
+        return elo(getScore());
+    }
+
+    // Metade do intervalo de 95% da diferença de Elo.
+    public double getEloError() {
+        if (getGames() == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double margin = 1.96 * Math.sqrt(variance() / getGames());
+        return (elo(getScore() + margin) - elo(getScore() - margin)) / 2;
+    }
+
+    public double getLlr() {
+        return llr;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    public Decision getDecision() {
+        if (llr >= upperBound) {
+            return Decision.ACCEPT_H1;
+        }
+        if (llr <= lowerBound) {
+            return Decision.ACCEPT_H0;
+        }
+        return Decision.CONTINUE;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getGamesPerMinute() {
+        return getGames() * 60000.0 / Math.max(1, elapsedMillis);
+    }
+
+    // Variância do resultado por partida (1, 1/2 ou 0) observada até aqui.
+    private double variance() {
+        double s = getScore();
+        int n = getGames();
+        return (wins * (1 - s) * (1 - s) + draws * (0.5 - s) * (0.5 - s) + losses * s * s) / n;
+    }
+
+    // Razão de log-verossimilhança pela aproximação normal do resultado médio,
+    // a mesma usada pelos testes de motores com empates (modelo trinomial).
+    private double llr(double elo0, double elo1) {
+        if (getGames() == 0) {
+            return 0;
+        }
+        double variance = variance();
+        if (variance == 0) {
+            return 0;
+        }
+        double s0 = score(elo0);
+        double s1 = score(elo1);
+        return getGames() * (s1 - s0) * (2 * getScore() - s0 - s1) / (2 * variance);
+    }
+
+    private static double score(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    private static double elo(double score) {
+        double s = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / s - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d partidas +%d =%d -%d | Elo %.1f +/- %.1f | LLR %.2f [%.2f, %.2f] | %.1f partidas/min",
+                getGames(), wins, draws, losses, getElo(), getEloError(), llr, lowerBound, upperBound, getGamesPerMinute());
+    }
+}
\ No newline at end of file
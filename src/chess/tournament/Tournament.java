@@ -0,0 +1,205 @@
+package chess.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import chess.ChessMatch;
+import chess.Color;
+import chess.MoveStatus;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+
+// Torneio entre duas configurações (A e B) jogado em todas as CPUs, com um
+// ChessMatch por partida. Cada abertura é jogada duas vezes, trocando as cores,
+// e o SPRT é recalculado a cada resultado até aceitar uma das hipóteses.
+public class Tournament {
+
+    private final Player playerA;
+    private final Player playerB;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxGames = 1000;
+    private int maxPlies = 400;
+    private List<String> openings = new ArrayList<>();
+    private long baseTime;
+    private long increment;
+    private long moveTime;
+    private double elo0 = 0;
+    private double elo1 = 10;
+    private double alpha = 0.05;
+    private double beta = 0.05;
+
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private int wins;
+    private int draws;
+    private int losses;
+    private volatile boolean finished;
+    private long startTime;
+
+    public Tournament(Player playerA, Player playerB) {
+        this.playerA = playerA;
+        this.playerB = playerB;
+        openings.add("");
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setMaxGames(int maxGames) {
+        this.maxGames = maxGames;
+    }
+
+    // Partidas que chegam a maxPlies meios-lances são declaradas empatadas.
+    public void setMaxPlies(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    // Cada abertura é uma sequência de lances em notação UCI ("e2e4 e7e5 g1f3").
+    public void setOpenings(List<String> openings) {
+        this.openings = new ArrayList<>(openings);
+    }
+
+    // Relógio por partida em milissegundos; sem ele, vale moveTime ou o limite
+    // de profundidade/nós de cada jogador.
+    public void setTimeControl(long baseTime, long increment) {
+        this.baseTime = baseTime;
+        this.increment = increment;
+    }
+
+    public void setMoveTime(long moveTime) {
+        this.moveTime = moveTime;
+    }
+
+    public void setSprt(double elo0, double elo1, double alpha, double beta) {
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    public synchronized Standing getStanding() {
+        return new Standing(wins, draws, losses, elo0, elo1, alpha, beta, (System.nanoTime() - startTime) / 1_000_000L);
+    }
+
+    // Bloqueia até o SPRT decidir ou maxGames partidas terminarem; o listener
+    // recebe o placar após cada partida, na thread que a jogou.
+    // Sem relógio nem moveTime, um jogador sem limite de profundidade ou de nós
+    // buscaria para sempre no primeiro lance: o torneio é recusado.
+    public Standing run(Consumer<Standing> listener) throws InterruptedException {
+        if (baseTime <= 0 && moveTime <= 0) {
+            for (Player player : new Player[] {playerA, playerB}) {
+                if (player.getDepth() >= Search.MAX_DEPTH && player.getNodes() == Long.MAX_VALUE) {
+                    throw new IllegalStateException("Torneio sem limite de profundidade, nós ou tempo para " + player.getName());
+                }
+            }
+        }
+        startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i=0; i<threads; i++) {
+            workers.add(executor.submit(() -> {
+                int game;
+                while (!finished && (game = nextGame.getAndIncrement()) < maxGames) {
+                    int result = playGame(game);
+                    Standing standing = record(result);
+                    if (listener != null) {
+                        listener.accept(standing);
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma partida do torneio", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return getStanding();
+    }
+
+    private synchronized Standing record(int result) {
+        if (result > 0) {
+            wins++;
+        }
+        else if (result < 0) {
+            losses++;
+        }
+        else {
+            draws++;
+        }
+        Standing standing = getStanding();
+        if (standing.getDecision() != Standing.Decision.CONTINUE) {
+            finished = true;
+        }
+        return standing;
+    }
+
+    // Resultado do ponto de vista do jogador A: 1, 0 ou -1. Nas partidas pares
+    // A joga de brancas; a partida seguinte repete a abertura com as cores trocadas.
+    private int playGame(int game) {
+        boolean aIsWhite = (game % 2 == 0);
+        ChessMatch chessMatch = new ChessMatch();
+        String opening = openings.get((game / 2) % openings.size()).trim();
+        if (!opening.isEmpty()) {
+            for (String token : opening.split("\\s+")) {
+                int move = chessMatch.parseMove(token);
+                if (move == 0 || chessMatch.tryPerformChessMove(move) != MoveStatus.OK) {
+                    throw new IllegalArgumentException("Lance inválido na abertura: " + opening);
+                }
+            }
+        }
+
+        Player[] players = aIsWhite ? new Player[] {playerA, playerB} : new Player[] {playerB, playerA};
+        Search[] searches = {new Search(chessMatch, players[0].newEvaluator()), new Search(chessMatch, players[1].newEvaluator())};
+        long[] clock = {baseTime, baseTime};
+        int whiteResult = 0;
+        for (int plies = 0; plies < maxPlies && !chessMatch.getCheckMate() && !chessMatch.getDraw(); plies++) {
+            int side = (chessMatch.getCurrentPlayer() == Color.WHITE) ? 0 : 1;
+            SearchLimits limits = new SearchLimits();
+            limits.setDepth(players[side].getDepth());
+            limits.setNodes(players[side].getNodes());
+            if (moveTime > 0) {
+                limits.setMoveTime(moveTime);
+            }
+            else if (baseTime > 0) {
+                limits.setWhiteTime(clock[0]);
+                limits.setBlackTime(clock[1]);
+                limits.setWhiteIncrement(increment);
+                limits.setBlackIncrement(increment);
+            }
+            long start = System.nanoTime();
+            SearchResult result = searches[side].search(limits, null);
+            if (baseTime > 0) {
+                clock[side] -= (System.nanoTime() - start) / 1_000_000L;
+                if (clock[side] < 0) {
+                    whiteResult = (side == 0) ? -1 : 1;
+                    break;
+                }
+                clock[side] += increment;
+            }
+            // Um lance recusado é erro do motor, e a posição fica como estava;
+            // ignorá-lo repetiria a busca até maxPlies e contaria um empate que não houve.
+            MoveStatus status = chessMatch.tryPerformChessMove(result.getBestMove());
+            if (status != MoveStatus.OK) {
+                throw new IllegalStateException(players[side].getName() + " jogou um lance inválido ("
+                        + status.getMessage() + ") em " + chessMatch.getFen());
+            }
+        }
+        if (chessMatch.getCheckMate()) {
+            whiteResult = (chessMatch.getCurrentPlayer() == Color.WHITE) ? -1 : 1;
+        }
+        return aIsWhite ? whiteResult : -whiteResult;
+    }
+}
\ No newline at end of file
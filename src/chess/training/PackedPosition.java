@@ -0,0 +1,112 @@
+package chess.training;
+
+import java.nio.ByteBuffer;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+
+// Posição de treino em 32 bytes little-endian:
+//
+//    0   ocupação: bit i ligado se a casa i (a8 = 0, b8 = 1, ..., h1 = 63) tem peça
+//    8   peças, 4 bits cada, na ordem dos bits de ocupação (nibble baixo primeiro):
+//        1..6 = P N B R Q K brancos, 9..14 = pretos
+//   24   bit 0: pretas jogam; bits 1-4: roque (K Q k q)
+//   25   coluna do en passant (0-7) ou 8 se não houver
+//   26   regra dos 50 lances (meios-lances, até 255)
+//   27   resultado: 0 = brancas venceram, 1 = empate, 2 = pretas venceram
+//   28   avaliação em centésimos de peão, do ponto de vista de quem joga (short)
+//   30   número do lance (short)
+public final class PackedPosition {
+
+    public static final int SIZE = 32;
+
+    private static final String PIECES = " PNBRQK";
+
+    private PackedPosition() {
+    }
+
+    // O formato tem 64 casas: outros tamanhos de tabuleiro são recusados em vez
+    // de gravados com as casas trocadas.
+    public static void encode(ChessMatch chessMatch, int result, int score, ByteBuffer out) {
+        if (chessMatch.getRows() != 8 || chessMatch.getColumns() != 8) {
+            throw new IllegalArgumentException("PackedPosition só codifica tabuleiros 8x8, não "
+                    + chessMatch.getRows() + "x" + chessMatch.getColumns());
+        }
+        long occupancy = 0;
+        long low = 0;
+        long high = 0;
+        int count = 0;
+        for (int square=0; square<64; square++) {
+            ChessPiece p = chessMatch.getPiece(square >> 3, square & 7);
+            if (p == null) {
+                continue;
+            }
+            occupancy |= 1L << square;
+            long code = PIECES.indexOf(p.toString().charAt(0)) | ((p.getColor() == Color.BLACK) ? 8 : 0);
+            if (count < 16) {
+                low |= code << (4 * count);
+            }
+            else {
+                high |= code << (4 * (count - 16));
+            }
+            count++;
+        }
+        ChessPiece enPassant = chessMatch.getEnPassantVulnerable();
+        int flags = ((chessMatch.getCurrentPlayer() == Color.BLACK) ? 1 : 0) | (chessMatch.getCastlingRights() << 1);
+        out.putLong(occupancy);
+        out.putLong(low);
+        out.putLong(high);
+        out.put((byte)flags);
+        out.put((byte)((enPassant == null) ? 8 : enPassant.getChessPosition().getColumn() - 'a'));
+        out.put((byte)Math.min(255, chessMatch.getHalfMoveClock()));
+        out.put((byte)result);
+        out.putShort((short)Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+        out.putShort((short)((chessMatch.getTurn() + 1) / 2));
+    }
+
+    // Reconstrói a FEN do registro que começa em offset, para inspeção e testes.
+    public static String toFen(ByteBuffer in, int offset) {
+        long occupancy = in.getLong(offset);
+        long low = in.getLong(offset + 8);
+        long high = in.getLong(offset + 16);
+        int flags = in.get(offset + 24);
+        int enPassant = in.get(offset + 25);
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        for (int row=0; row<8; row++) {
+            int empty = 0;
+            for (int column=0; column<8; column++) {
+                if ((occupancy & (1L << (row * 8 + column))) == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                int code = (int)(((count < 16) ? low >>> (4 * count) : high >>> (4 * (count - 16))) & 15);
+                char letter = PIECES.charAt(code & 7);
+                sb.append(((code & 8) != 0) ? Character.toLowerCase(letter) : letter);
+                count++;
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (row < 7) {
+                sb.append('/');
+            }
+        }
+        boolean black = (flags & 1) != 0;
+        sb.append(black ? " b " : " w ");
+        String castling = "";
+        for (int i=0; i<4; i++) {
+            if ((flags & (2 << i)) != 0) {
+                castling += "KQkq".charAt(i);
+            }
+        }
+        sb.append(castling.isEmpty() ? "-" : castling).append(' ');
+        sb.append((enPassant == 8) ? "-" : "" + (char)('a' + enPassant) + (black ? 3 : 6));
+        sb.append(' ').append(in.get(offset + 26) & 0xFF).append(' ').append(in.getShort(offset + 30));
+        return sb.toString();
+    }
+}
\ No newline at end of file
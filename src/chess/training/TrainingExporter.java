@@ -0,0 +1,143 @@
+package chess.training;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import chess.ChessMatch;
+
+// Grava posições de treino (PackedPosition) num único arquivo a partir de várias
+// threads. Cada thread usa o seu Writer, que acumula os registros num buffer
+// direto e o grava inteiro no canal quando enche; como o buffer contém só
+// registros completos, gravações de threads diferentes nunca se intercalam
+// dentro de um registro.
+//
+// Opcionalmente o Writer embaralha cada buffer antes de gravá-lo (as posições
+// de uma mesma partida ficam espalhadas em vez de consecutivas) e descarta
+// posições já vistas, por uma tabela compartilhada de chaves sem travas. A
+// tabela é com perdas: uma chave pode ser sobrescrita por outra da mesma casa,
+// deixando passar uma repetição, mas nunca descarta uma posição nova.
+public class TrainingExporter implements Closeable {
+
+    private final FileChannel channel;
+    private final int bufferRecords;
+    private final boolean shuffle;
+    private final AtomicLongArray seen;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final List<Writer> writers = new ArrayList<>();
+    private final SplittableRandom seeds;
+
+    // dedupTableSize é arredondado para potência de dois; 0 desliga a deduplicação.
+    public TrainingExporter(Path path, int bufferRecords, boolean shuffle, int dedupTableSize, long seed) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.bufferRecords = bufferRecords;
+        this.shuffle = shuffle;
+        this.seen = (dedupTableSize > 0) ? new AtomicLongArray(Integer.highestOneBit(Math.max(1, dedupTableSize - 1)) << 1) : null;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    public TrainingExporter(Path path) throws IOException {
+        this(path, 1 << 15, false, 0, 0);
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public synchronized Writer newWriter() {
+        Writer writer = new Writer(seeds.split());
+        writers.add(writer);
+        return writer;
+    }
+
+    // Devolve falso se a chave já estava na tabela.
+    private boolean firstSeen(long key) {
+        int index = (int)(key ^ (key >>> 32)) & (seen.length() - 1);
+        return seen.getAndSet(index, key) != key;
+    }
+
+    // Grava o que restou nos buffers; as threads que usam os Writers já devem ter terminado.
+    @Override
+    public void close() throws IOException {
+        try {
+            synchronized (this) {
+                for (Writer writer : writers) {
+                    writer.flush();
+                }
+            }
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    public class Writer {
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferRecords * PackedPosition.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final byte[] swap = new byte[2 * PackedPosition.SIZE];
+        private final SplittableRandom random;
+
+        private Writer(SplittableRandom random) {
+            this.random = random;
+        }
+
+        // result no formato de GameArchive (0 = brancas venceram, 1 = empate,
+        // 2 = pretas venceram); score do ponto de vista de quem joga.
+        public boolean add(ChessMatch chessMatch, int result, int score) throws IOException {
+            if (seen != null && !firstSeen(chessMatch.getPositionKey())) {
+                duplicates.incrementAndGet();
+                return false;
+            }
+            PackedPosition.encode(chessMatch, result, score, buffer);
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            return true;
+        }
+
+        public void flush() throws IOException {
+            int records = buffer.position() / PackedPosition.SIZE;
+            if (records == 0) {
+                return;
+            }
+            if (shuffle) {
+                shuffle(records);
+            }
+            buffer.flip();
+            synchronized (channel) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            buffer.clear();
+            written.addAndGet(records);
+        }
+
+        // Fisher-Yates sobre os registros do buffer, trocando 32 bytes por vez.
+        private void shuffle(int records) {
+            for (int i = records - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                if (j == i) {
+                    continue;
+                }
+                buffer.get(i * PackedPosition.SIZE, swap, 0, PackedPosition.SIZE);
+                buffer.get(j * PackedPosition.SIZE, swap, PackedPosition.SIZE, PackedPosition.SIZE);
+                buffer.put(i * PackedPosition.SIZE, swap, PackedPosition.SIZE, PackedPosition.SIZE);
+                buffer.put(j * PackedPosition.SIZE, swap, 0, PackedPosition.SIZE);
+            }
+        }
+    }
+}
\ No newline at end of file